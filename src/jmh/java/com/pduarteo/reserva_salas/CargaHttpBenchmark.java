@@ -0,0 +1,115 @@
+package com.pduarteo.reserva_salas;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga HTTP comparando o Tomcat em threads de plataforma e em threads virtuais
+ * (com o bulkhead dimensionado ao pool do Hikari). Muitas threads de cliente fazem consultas
+ * que vão ao banco; o JMH reporta a vazão e a distribuição de latência (p50, p99...) de cada modo.
+ * Respostas 503 do bulkhead são contadas à parte e não entram como sucesso.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class CargaHttpBenchmark {
+
+    @Param({"false", "true"})
+    public boolean threadsVirtuais;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private URI listagem;
+    private URI porSala;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Respostas {
+        public long sucesso;
+        public long sobrecarga;
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        postgres = EmbeddedPostgres.builder().setServerConfig("max_connections", "300").start();
+        contexto = SpringApplication.run(ReservaSalasApplication.class,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                "--logging.level.root=WARN");
+        String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        enviar(HttpRequest.newBuilder(URI.create(base + "/api/salas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"nome\":\"Sala Carga\",\"capacidade\":20,\"andar\":1}"))
+                .build());
+        LocalDate segunda = LocalDate.now(ZoneId.of("America/Fortaleza")).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        StringBuilder lote = new StringBuilder("[");
+        for (int dia = 0; dia < 5; dia++) {
+            for (int hora = 8; hora < 18; hora++) {
+                lote.append(lote.length() > 1 ? "," : "").append(String.format(
+                        "{\"salaId\":1,\"dataReserva\":\"%s\",\"horaInicio\":\"%02d:00\",\"horaFim\":\"%02d:30\","
+                                + "\"responsavel\":\"Carga\",\"emailResponsavel\":\"carga@empresa.com\",\"quantidadePessoas\":2}",
+                        segunda.plusDays(dia), hora, hora));
+            }
+        }
+        enviar(HttpRequest.newBuilder(URI.create(base + "/api/reservas/lote"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(lote.append("]").toString()))
+                .build());
+
+        listagem = URI.create(base + "/api/reservas?page=0&size=20");
+        porSala = URI.create(base + "/api/reservas/sala/1?de=" + segunda + "&ate=" + segunda.plusDays(4));
+    }
+
+    @Benchmark
+    public int listarReservas(Respostas respostas) throws Exception {
+        return contar(respostas, enviar(HttpRequest.newBuilder(listagem).GET().build()));
+    }
+
+    @Benchmark
+    public int listarReservasPorSala(Respostas respostas) throws Exception {
+        return contar(respostas, enviar(HttpRequest.newBuilder(porSala).GET().build()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        postgres.close();
+    }
+
+    private int enviar(HttpRequest requisicao) throws Exception {
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int contar(Respostas respostas, int status) {
+        if (status == 503) {
+            respostas.sobrecarga++;
+        } else {
+            respostas.sucesso++;
+        }
+        return status;
+    }
+}
@@ -0,0 +1,71 @@
+package com.pduarteo.reserva_salas.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detecção de conflito no índice de ocupação em memória, com salas e dias pré-populados.
+ * A semente fixa garante a mesma ocupação e a mesma sequência de consultas a cada execução.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+@State(Scope.Benchmark)
+public class ConflitoBenchmark {
+
+    private static final int CONSULTAS = 1024;
+
+    @Param({"100", "5000"})
+    public int salas;
+
+    private OcupacaoIndex index;
+    private long[] salaIds;
+    private LocalDate[] datas;
+    private LocalTime[] inicios;
+    private LocalTime[] fins;
+    private int proxima;
+
+    @Setup
+    public void setup() {
+        index = new OcupacaoIndex();
+        LocalDate segunda = Datas.proximaSegunda();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long sala = 1; sala <= salas; sala++) {
+            for (int dia = 0; dia < 5; dia++) {
+                for (int reservas = 0; reservas < 4; reservas++) {
+                    LocalTime inicio = LocalTime.of(8, 0).plusMinutes(random.nextInt(18) * 30L);
+                    index.ocupar(sala, segunda.plusDays(dia), inicio, inicio.plusMinutes(30L * (1 + random.nextInt(2))));
+                }
+            }
+        }
+
+        salaIds = new long[CONSULTAS];
+        datas = new LocalDate[CONSULTAS];
+        inicios = new LocalTime[CONSULTAS];
+        fins = new LocalTime[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            salaIds[i] = 1 + random.nextInt(salas);
+            datas[i] = segunda.plusDays(random.nextInt(5));
+            inicios[i] = LocalTime.of(8, 0).plusMinutes(random.nextInt(18) * 30L);
+            fins[i] = inicios[i].plusMinutes(60);
+        }
+    }
+
+    @Benchmark
+    public boolean haConflito() {
+        int i = proxima++ & (CONSULTAS - 1);
+        return index.haConflito(salaIds[i], datas[i], inicios[i], fins[i]);
+    }
+
+    @Benchmark
+    public int mascara() {
+        int i = proxima++ & (CONSULTAS - 1);
+        return OcupacaoIndex.mascara(inicios[i], fins[i]);
+    }
+}
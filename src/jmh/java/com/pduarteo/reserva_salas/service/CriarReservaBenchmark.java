@@ -0,0 +1,74 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.ReservaSalasApplication;
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * criarReserva de ponta a ponta (cache de salas, regras, índice de ocupação e insert)
+ * contra um PostgreSQL embarcado descartável, com o esquema criado pelas migrações.
+ * Cada reserva criada é cancelada fora da medição, mantendo a tabela estável entre iterações.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class CriarReservaBenchmark {
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext contexto;
+    private ReservaService reservaService;
+    private Long salaId;
+    private LocalDate data;
+    private int slot;
+    private RetornoReservaDTO criada;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // Argumentos de linha de comando têm precedência sobre o application.properties
+        contexto = SpringApplication.run(ReservaSalasApplication.class,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.web-application-type=none",
+                "--logging.level.root=WARN");
+        reservaService = contexto.getBean(ReservaService.class);
+        salaId = contexto.getBean(SalaService.class)
+                .criarSala(new CriarSalaDTO("Sala Benchmark", 20, 1, null))
+                .id();
+        data = Datas.proximaSegunda();
+    }
+
+    @Benchmark
+    public RetornoReservaDTO criarReserva() {
+        LocalTime inicio = LocalTime.of(8, 0).plusMinutes(30L * (slot++ % 19));
+        criada = reservaService.criarReserva(new CriarReservaDTO(salaId, data, inicio, inicio.plusMinutes(60),
+                "Responsável", "responsavel@empresa.com", "Benchmark", 4));
+        return criada;
+    }
+
+    @TearDown(Level.Invocation)
+    public void cancelar() {
+        reservaService.cancelarReserva(criada.id());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.pduarteo.reserva_salas.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+final class Datas {
+
+    private Datas() {
+    }
+
+    /**
+     * Próxima segunda-feira (a partir de amanhã), sempre dentro da janela de 90 dias aceita pelas regras.
+     */
+    static LocalDate proximaSegunda() {
+        return LocalDate.now(ZoneId.of("America/Fortaleza")).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,61 @@
+package com.pduarteo.reserva_salas.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vazão do compare-and-set do índice de ocupação com várias threads: cada operação ocupa e devolve
+ * um intervalo de 30 minutos. Em "salasDistintas" cada thread usa a própria sala (sem disputa);
+ * em "mesmaSala" todas disputam a máscara de uma única sala/dia, cada uma com o seu intervalo,
+ * exercitando as repetições do CAS. Rodar com -t variando para comparar a escala.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+@Threads(Threads.MAX)
+public class OcupacaoConcorrenteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Indice {
+        final OcupacaoIndex index = new OcupacaoIndex();
+        final LocalDate data = Datas.proximaSegunda();
+        final AtomicInteger threads = new AtomicInteger();
+    }
+
+    @State(Scope.Thread)
+    public static class Intervalo {
+        long salaId;
+        int mascara;
+
+        @Setup
+        public void setup(Indice indice) {
+            int thread = indice.threads.getAndIncrement();
+            salaId = thread + 1;
+            mascara = 1 << (thread % OcupacaoIndex.TOTAL_INTERVALOS);
+        }
+    }
+
+    @Benchmark
+    public boolean salasDistintas(Indice indice, Intervalo intervalo) {
+        return ocuparEDevolver(indice, intervalo.salaId, intervalo.mascara);
+    }
+
+    @Benchmark
+    public boolean mesmaSala(Indice indice, Intervalo intervalo) {
+        return ocuparEDevolver(indice, 0L, intervalo.mascara);
+    }
+
+    private static boolean ocuparEDevolver(Indice indice, long salaId, int mascara) {
+        // Fora de transação a devolução é imediata
+        boolean ocupou = indice.index.ocupar(salaId, indice.data, mascara);
+        if (ocupou) {
+            indice.index.liberarAposCommit(salaId, indice.data, mascara);
+        }
+        return ocupou;
+    }
+}
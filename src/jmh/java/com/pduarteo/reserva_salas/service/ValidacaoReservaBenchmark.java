@@ -0,0 +1,47 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.model.Reserva;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras puras do caminho de reserva: validação de data/hora, capacidade e mapeamento para DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+@State(Scope.Benchmark)
+public class ValidacaoReservaBenchmark {
+
+    private CriarReservaDTO dto;
+    private Reserva reserva;
+
+    @Setup
+    public void setup() {
+        dto = new CriarReservaDTO(1L, Datas.proximaSegunda(), LocalTime.of(9, 0), LocalTime.of(10, 30),
+                "Responsável", "responsavel@empresa.com", "Reunião de planejamento", 8);
+        reserva = new Reserva(42L, dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim(),
+                dto.responsavel(), dto.emailResponsavel(), dto.descricao(), dto.quantidadePessoas());
+    }
+
+    @Benchmark
+    public void validarDataHora() {
+        ReservaService.validarDataHora(dto);
+    }
+
+    @Benchmark
+    public void validarCapacidade() {
+        ReservaService.validarCapacidade(dto, 10);
+    }
+
+    @Benchmark
+    public RetornoReservaDTO mapearParaDTO() {
+        return ReservaService.paraDTO(reserva);
+    }
+}
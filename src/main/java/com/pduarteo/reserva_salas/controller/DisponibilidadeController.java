@@ -0,0 +1,60 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.DisponibilidadeDTO;
+import com.pduarteo.reserva_salas.dto.DisponibilidadeSalaDTO;
+import com.pduarteo.reserva_salas.service.DisponibilidadeService;
+import com.pduarteo.reserva_salas.support.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Grade semanal de disponibilidade por andar, para a visão de calendário da UI.
+ * Substitui uma chamada de GET /api/reservas/sala/{salaId} por sala do andar.
+ * A resposta leva um ETag calculado sobre as máscaras: se a semana não mudou, o cliente recebe 304 sem corpo.
+ * Atende tanto a pilha bloqueante quanto o perfil reativo.
+ */
+@RestController
+@RequestMapping(path = "/api/disponibilidade")
+public class DisponibilidadeController {
+
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+
+    @GetMapping
+    public Mono<ResponseEntity<DisponibilidadeDTO>> buscarDisponibilidade(
+            @RequestParam Integer andar,
+            @RequestParam(required = false) LocalDate semana,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return Mono.fromCallable(() -> disponibilidadeService.montar(andar, semana))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(grade -> {
+                    String etag = etag(grade);
+                    if (ETags.corresponde(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(grade);
+                });
+    }
+
+    private static String etag(DisponibilidadeDTO grade) {
+        StringBuilder conteudo = new StringBuilder().append(grade.andar()).append('|').append(grade.semana());
+        for (DisponibilidadeSalaDTO sala : grade.salas()) {
+            conteudo.append('|').append(sala.salaId()).append(':').append(sala.nome())
+                    .append(':').append(Arrays.toString(sala.indisponivel()));
+        }
+        return ETags.doConteudo(conteudo);
+    }
+}
@@ -0,0 +1,54 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.EntradaEsperaDTO;
+import com.pduarteo.reserva_salas.enums.StatusEspera;
+import com.pduarteo.reserva_salas.service.ListaEsperaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+@RestController
+@Profile("!reativo")
+@RequestMapping("/api/reservas/espera")
+public class ListaEsperaController {
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    /**
+     * 201 com Location da reserva se o horário estava livre; 202 com Location da entrada se o pedido ficou na fila.
+     */
+    @PostMapping
+    public ResponseEntity<EntradaEsperaDTO> entrar(@Valid @RequestBody CriarReservaDTO criarReservaDTO) {
+        EntradaEsperaDTO entrada = listaEsperaService.entrar(criarReservaDTO);
+        if (entrada.status() == StatusEspera.PROMOVIDA) {
+            URI reserva = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/reservas/{id}")
+                    .buildAndExpand(entrada.reservaId())
+                    .toUri();
+            return ResponseEntity.created(reserva).body(entrada);
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(entrada.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(entrada);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EntradaEsperaDTO> buscar(@PathVariable Long id) {
+        return ResponseEntity.ok(listaEsperaService.buscar(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> sair(@PathVariable Long id) {
+        listaEsperaService.sair(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.service.NotificacaoReservas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Eventos de reservas criadas e canceladas via Server-Sent Events, por sala ou por andar.
+ * Substitui o polling de GET /api/reservas/sala/{salaId}; atende tanto a pilha bloqueante quanto o perfil reativo.
+ */
+@RestController
+@RequestMapping(path = "/api/salas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+public class NotificacaoController {
+
+    // Comentário periódico para manter a conexão aberta em proxies com timeout de inatividade
+    private static final Duration INTERVALO_HEARTBEAT = Duration.ofSeconds(25);
+
+    @Autowired
+    private NotificacaoReservas notificacaoReservas;
+
+    @GetMapping("/{salaId}/eventos")
+    public Flux<ServerSentEvent<EventoReservaDTO>> eventosDaSala(@PathVariable Long salaId) {
+        return comHeartbeat(notificacaoReservas.assinarSala(salaId));
+    }
+
+    @GetMapping("/andar/{andar}/eventos")
+    public Flux<ServerSentEvent<EventoReservaDTO>> eventosDoAndar(@PathVariable Integer andar) {
+        return comHeartbeat(notificacaoReservas.assinarAndar(andar));
+    }
+
+    private static Flux<ServerSentEvent<EventoReservaDTO>> comHeartbeat(Flux<EventoReservaDTO> eventos) {
+        Flux<ServerSentEvent<EventoReservaDTO>> dados = eventos.map(evento -> ServerSentEvent.<EventoReservaDTO>builder()
+                .event(evento.tipo().name())
+                .data(evento)
+                .build());
+        Flux<ServerSentEvent<EventoReservaDTO>> heartbeat = Flux.interval(INTERVALO_HEARTBEAT)
+                .map(tick -> ServerSentEvent.<EventoReservaDTO>builder().comment("heartbeat").build());
+        return Flux.merge(dados, heartbeat);
+    }
+}
@@ -1,35 +1,81 @@
 package com.pduarteo.reserva_salas.controller;
 
 import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.ResultadoLoteReservaDTO;
 import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.service.IdempotenciaReservas;
+import com.pduarteo.reserva_salas.service.RegistroIdempotencia;
 import com.pduarteo.reserva_salas.service.ReservaService;
+import com.pduarteo.reserva_salas.support.ETags;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reativo")
 @RequestMapping("/api/reservas")
 public class ReservaController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private ReservaService reservaService;
+    @Autowired
+    private IdempotenciaReservas idempotenciaReservas;
 
+    /**
+     * Cria uma reserva. Com Idempotency-Key, uma repetição da mesma requisição (por exemplo, após um timeout)
+     * recebe a reserva já criada, com o cabeçalho Idempotent-Replayed, em vez de um conflito de horário.
+     */
     @PostMapping
-    public ResponseEntity<RetornoReservaDTO> criarReserva(@Valid @RequestBody CriarReservaDTO criarReservaDTO) {
-        RetornoReservaDTO reserva = reservaService.criarReserva(criarReservaDTO);
+    public ResponseEntity<RetornoReservaDTO> criarReserva(@Valid @RequestBody CriarReservaDTO criarReservaDTO,
+                                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+                                                          @Size(min = 1, max = 255) String chaveIdempotencia) {
+        RetornoReservaDTO reserva;
+        boolean repetida = false;
+        if (chaveIdempotencia == null) {
+            reserva = reservaService.criarReserva(criarReservaDTO);
+        } else {
+            RegistroIdempotencia.Resultado resultado = idempotenciaReservas.criarReserva(chaveIdempotencia, criarReservaDTO);
+            reserva = resultado.reserva();
+            repetida = resultado.repetida();
+        }
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(reserva.id())
                 .toUri();
-        return ResponseEntity.created(location).body(reserva);
+        var resposta = ResponseEntity.created(location);
+        if (repetida) {
+            resposta.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return resposta.body(reserva);
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoLoteReservaDTO>> criarReservasEmLote(
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid CriarReservaDTO> reservas) {
+        return ResponseEntity.ok(reservaService.criarReservasEmLote(reservas));
     }
 
     @GetMapping
@@ -37,9 +83,31 @@ public class ReservaController {
         return ResponseEntity.ok(reservaService.listarReservas(pageable));
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<PaginaCursorDTO<RetornoReservaDTO>> listarReservasPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) int limit) {
+        return ResponseEntity.ok(reservaService.listarReservasPorCursor(after, limit));
+    }
+
+    @GetMapping(path = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarReservas(@RequestParam(required = false) Long salaId,
+                                                                  @RequestParam(required = false) String email,
+                                                                  @RequestParam(required = false) LocalDate de,
+                                                                  @RequestParam(required = false) LocalDate ate) {
+        StreamingResponseBody corpo = saida -> reservaService.exportarReservas(salaId, email, de, ate, saida);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<RetornoReservaDTO> buscarReservaPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(reservaService.buscarReservaPorId(id));
+    public ResponseEntity<RetornoReservaDTO> buscarReservaPorId(@PathVariable Long id,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RetornoReservaDTO reserva = reservaService.buscarReservaPorId(id);
+        String etag = ETags.daVersao(reserva.versao());
+        if (ETags.corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(reserva);
     }
 
     @DeleteMapping("/{id}")
@@ -49,8 +117,10 @@ public class ReservaController {
     }
 
     @GetMapping("/sala/{salaId}")
-    public ResponseEntity<List<RetornoReservaDTO>> listarReservasPorSala(@PathVariable Long salaId) {
-        return ResponseEntity.ok(reservaService.listarReservasPorSalaId(salaId));
+    public ResponseEntity<List<RetornoReservaDTO>> listarReservasPorSala(@PathVariable Long salaId,
+                                                                         @RequestParam(required = false) LocalDate de,
+                                                                         @RequestParam(required = false) LocalDate ate) {
+        return ResponseEntity.ok(reservaService.listarReservasPorSalaId(salaId, de, ate));
     }
 
     @GetMapping("responsavel/{responsavel}")
@@ -0,0 +1,83 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.service.ReservaReativaService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mesmo contrato de /api/reservas do ReservaController, servido por WebFlux + R2DBC no perfil "reativo".
+ */
+@RestController
+@RequestMapping("/api/reservas")
+@Profile("reativo")
+public class ReservaReativaController {
+
+    @Autowired
+    private ReservaReativaService reservaService;
+
+    @PostMapping
+    public Mono<ResponseEntity<RetornoReservaDTO>> criarReserva(@Valid @RequestBody CriarReservaDTO criarReservaDTO,
+                                                                ServerHttpRequest request) {
+        return reservaService.criarReserva(criarReservaDTO)
+                .map(reserva -> ResponseEntity.created(UriComponentsBuilder.fromUri(request.getURI())
+                                .path("/{id}")
+                                .buildAndExpand(reserva.id())
+                                .toUri())
+                        .body(reserva));
+    }
+
+    @GetMapping
+    public Mono<Page<RetornoReservaDTO>> listarReservas(@RequestParam(defaultValue = "0") @Min(0) int page,
+                                                        @RequestParam(defaultValue = "10") @Min(1) @Max(2000) int size) {
+        return reservaService.listarReservas(page, size);
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<PaginaCursorDTO<RetornoReservaDTO>> listarReservasPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) int limit) {
+        return reservaService.listarReservasPorCursor(after, limit);
+    }
+
+    @GetMapping(path = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RetornoReservaDTO> exportarReservas(@RequestParam(required = false) Long salaId,
+                                                   @RequestParam(required = false) String email,
+                                                   @RequestParam(required = false) LocalDate de,
+                                                   @RequestParam(required = false) LocalDate ate) {
+        return reservaService.exportarReservas(salaId, email, de, ate);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<RetornoReservaDTO> buscarReservaPorId(@PathVariable Long id) {
+        return reservaService.buscarReservaPorId(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> cancelarReserva(@PathVariable Long id) {
+        return reservaService.cancelarReserva(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/sala/{salaId}")
+    public Mono<List<RetornoReservaDTO>> listarReservasPorSala(@PathVariable Long salaId,
+                                                               @RequestParam(required = false) LocalDate de,
+                                                               @RequestParam(required = false) LocalDate ate) {
+        return reservaService.listarReservasPorSalaId(salaId, de, ate);
+    }
+}
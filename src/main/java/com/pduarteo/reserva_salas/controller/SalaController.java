@@ -1,19 +1,33 @@
 package com.pduarteo.reserva_salas.controller;
 
 import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.dto.OcupacaoDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
 import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.Recurso;
 import com.pduarteo.reserva_salas.model.Sala;
+import com.pduarteo.reserva_salas.service.OcupacaoService;
 import com.pduarteo.reserva_salas.service.SalaService;
+import com.pduarteo.reserva_salas.support.ETags;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST para operações relacionadas à entidade Sala.
@@ -21,28 +35,94 @@ import java.util.List;
  * Destaca validações, uso de ResponseEntity e integração com paginação.
  */
 @RestController
+@Profile("!reativo")
 @RequestMapping(path = "/api/salas")
 public class SalaController {
 
     @Autowired
     private SalaService salaService; // Injeta o serviço responsável pela lógica de negócio de Sala
+    @Autowired
+    private OcupacaoService ocupacaoService; // Relatórios de ocupação a partir do agregado diário
 
     /**
      * Busca uma sala pelo ID.
      * Retorna 200 com o DTO da sala encontrada ou erro se não existir.
+     * A versão da sala vai no ETag; com o cache de salas aquecido, um If-None-Match
+     * correspondente recebe 304 sem acesso ao banco e sem serializar o corpo.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<RetornoSalaDTO> buscarSalaPorId(@PathVariable Long id){
-        return ResponseEntity.ok().body(salaService.buscarSalaPorId(id));
+    public ResponseEntity<RetornoSalaDTO> buscarSalaPorId(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        RetornoSalaDTO sala = salaService.buscarSalaPorId(id);
+        String etag = ETags.daVersao(sala.versao());
+        if (ETags.corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(sala);
     }
 
     /**
      * Lista todas as salas de forma paginada.
      * Utiliza o Pageable do Spring para paginação automática.
+     * O ETag é calculado sobre os ids e versões da página e o total, então qualquer sala
+     * criada, alterada ou removida gera um ETag novo.
      */
     @GetMapping
-    public ResponseEntity<Page<RetornoSalaDTO>> buscarSalas(Pageable pageable){
-        return ResponseEntity.ok().body(salaService.listarSalas(pageable));
+    public ResponseEntity<Page<RetornoSalaDTO>> buscarSalas(Pageable pageable,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        Page<RetornoSalaDTO> pagina = salaService.listarSalas(pageable);
+        StringBuilder conteudo = new StringBuilder()
+                .append(pagina.getNumber()).append('|').append(pagina.getSize()).append('|').append(pagina.getSort())
+                .append('|').append(pagina.getTotalElements());
+        pagina.forEach(sala -> conteudo.append('|').append(sala.id()).append(':').append(sala.versao()));
+        String etag = ETags.doConteudo(conteudo);
+        if (ETags.corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(pagina);
+    }
+
+    /**
+     * Lista salas com paginação por cursor (?after=&limit=), sem consulta de count.
+     * Indicado para integrações que percorrem todas as salas; a paginação por offset continua para a UI.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<PaginaCursorDTO<RetornoSalaDTO>> buscarSalasPorCursor(@RequestParam(required = false) String after,
+                                                                              @RequestParam @Min(1) @Max(1000) int limit){
+        return ResponseEntity.ok().body(salaService.listarSalasPorCursor(after, limit));
+    }
+
+    /**
+     * Busca salas disponíveis em uma data e intervalo, filtrando por capacidade e recursos.
+     * Substitui a consulta sala a sala das reservas por uma única chamada.
+     */
+    @GetMapping("/disponiveis")
+    public ResponseEntity<List<RetornoSalaDTO>> buscarSalasDisponiveis(@RequestParam LocalDate data,
+                                                                       @RequestParam LocalTime inicio,
+                                                                       @RequestParam LocalTime fim,
+                                                                       @RequestParam(required = false) Integer capacidade,
+                                                                       @RequestParam(required = false) Set<Recurso> recursos) {
+        return ResponseEntity.ok().body(salaService.buscarSalasDisponiveis(data, inicio, fim, capacidade, recursos));
+    }
+
+    /**
+     * Ocupação de uma sala no período (padrão: trimestre corrente), total e por dia da semana.
+     */
+    @GetMapping("/{id}/ocupacao")
+    public ResponseEntity<OcupacaoDTO> buscarOcupacaoDaSala(@PathVariable Long id,
+                                                           @RequestParam(required = false) LocalDate de,
+                                                           @RequestParam(required = false) LocalDate ate) {
+        return ResponseEntity.ok().body(ocupacaoService.ocupacaoDaSala(id, de, ate));
+    }
+
+    /**
+     * Ocupação de um andar no período (padrão: trimestre corrente), total, por dia da semana e por sala.
+     */
+    @GetMapping("/andar/{andar}/ocupacao")
+    public ResponseEntity<OcupacaoDTO> buscarOcupacaoDoAndar(@PathVariable Integer andar,
+                                                            @RequestParam(required = false) LocalDate de,
+                                                            @RequestParam(required = false) LocalDate ate) {
+        return ResponseEntity.ok().body(ocupacaoService.ocupacaoDoAndar(andar, de, ate));
     }
 
     /**
@@ -63,11 +143,14 @@ public class SalaController {
 
     /**
      * Atualiza uma sala existente.
-     * Recebe o ID e os novos dados via DTO, retorna o DTO atualizado.
+     * Recebe o ID e os novos dados via DTO, retorna o DTO atualizado com o novo ETag.
+     * Com If-Match, a atualização só é aplicada se a sala ainda estiver na versão informada; caso contrário, 412.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<RetornoSalaDTO> atualizarSala(@PathVariable Long id, @RequestBody @Valid CriarSalaDTO sala) {
-        return ResponseEntity.ok().body(salaService.atualizarSala(id, sala));
+    public ResponseEntity<RetornoSalaDTO> atualizarSala(@PathVariable Long id, @RequestBody @Valid CriarSalaDTO sala,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        RetornoSalaDTO atualizada = salaService.atualizarSala(id, sala, ETags.versaoEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.daVersao(atualizada.versao())).body(atualizada);
     }
 
     /**
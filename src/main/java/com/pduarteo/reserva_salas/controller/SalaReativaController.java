@@ -0,0 +1,104 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.dto.OcupacaoDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.Recurso;
+import com.pduarteo.reserva_salas.service.OcupacaoService;
+import com.pduarteo.reserva_salas.service.SalaReativaService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mesmo contrato de /api/salas do SalaController, servido por WebFlux + R2DBC no perfil "reativo".
+ */
+@RestController
+@RequestMapping(path = "/api/salas")
+@Profile("reativo")
+public class SalaReativaController {
+
+    @Autowired
+    private SalaReativaService salaService;
+    @Autowired
+    private OcupacaoService ocupacaoService;
+
+    @GetMapping("/{id}")
+    public Mono<RetornoSalaDTO> buscarSalaPorId(@PathVariable Long id) {
+        return salaService.buscarSalaPorId(id);
+    }
+
+    @GetMapping
+    public Mono<Page<RetornoSalaDTO>> buscarSalas(@RequestParam(defaultValue = "0") @Min(0) int page,
+                                                  @RequestParam(defaultValue = "20") @Min(1) @Max(2000) int size) {
+        return salaService.listarSalas(page, size);
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<PaginaCursorDTO<RetornoSalaDTO>> buscarSalasPorCursor(@RequestParam(required = false) String after,
+                                                                     @RequestParam @Min(1) @Max(1000) int limit) {
+        return salaService.listarSalasPorCursor(after, limit);
+    }
+
+    // Relatórios de ocupação: leitura JPA do agregado diário, fora do event loop
+    @GetMapping("/{id}/ocupacao")
+    public Mono<OcupacaoDTO> buscarOcupacaoDaSala(@PathVariable Long id,
+                                                 @RequestParam(required = false) LocalDate de,
+                                                 @RequestParam(required = false) LocalDate ate) {
+        return Mono.fromCallable(() -> ocupacaoService.ocupacaoDaSala(id, de, ate))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/andar/{andar}/ocupacao")
+    public Mono<OcupacaoDTO> buscarOcupacaoDoAndar(@PathVariable Integer andar,
+                                                  @RequestParam(required = false) LocalDate de,
+                                                  @RequestParam(required = false) LocalDate ate) {
+        return Mono.fromCallable(() -> ocupacaoService.ocupacaoDoAndar(andar, de, ate))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/disponiveis")
+    public Mono<List<RetornoSalaDTO>> buscarSalasDisponiveis(@RequestParam LocalDate data,
+                                                             @RequestParam LocalTime inicio,
+                                                             @RequestParam LocalTime fim,
+                                                             @RequestParam(required = false) Integer capacidade,
+                                                             @RequestParam(required = false) Set<Recurso> recursos) {
+        return salaService.buscarSalasDisponiveis(data, inicio, fim, capacidade, recursos);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<RetornoSalaDTO>> criarSala(@RequestBody @Valid CriarSalaDTO dadosSala,
+                                                          ServerHttpRequest request) {
+        return salaService.criarSala(dadosSala)
+                .map(novaSala -> ResponseEntity.created(UriComponentsBuilder.fromUri(request.getURI())
+                                .path("/{id}")
+                                .buildAndExpand(novaSala.id())
+                                .toUri())
+                        .body(novaSala));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<RetornoSalaDTO> atualizarSala(@PathVariable Long id, @RequestBody @Valid CriarSalaDTO sala) {
+        return salaService.atualizarSala(id, sala);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletarSala(@PathVariable Long id) {
+        return salaService.deletarSala(id).thenReturn(ResponseEntity.noContent().build());
+    }
+}
@@ -0,0 +1,49 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.dto.CriarSerieReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSerieReservaDTO;
+import com.pduarteo.reserva_salas.service.SerieReservaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+@RestController
+@Profile("!reativo")
+@RequestMapping("/api/reservas/series")
+public class SerieReservaController {
+
+    @Autowired
+    private SerieReservaService serieReservaService;
+
+    @PostMapping
+    public ResponseEntity<RetornoSerieReservaDTO> criarSerie(@Valid @RequestBody CriarSerieReservaDTO criarSerieReservaDTO) {
+        RetornoSerieReservaDTO serie = serieReservaService.criarSerie(criarSerieReservaDTO);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(serie.id())
+                .toUri();
+        return ResponseEntity.created(location).body(serie);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RetornoSerieReservaDTO> buscarSeriePorId(@PathVariable Long id) {
+        return ResponseEntity.ok(serieReservaService.buscarSeriePorId(id));
+    }
+
+    @PostMapping("/{id}/excecoes")
+    public ResponseEntity<RetornoSerieReservaDTO> adicionarExcecao(@PathVariable Long id, @RequestParam LocalDate data) {
+        return ResponseEntity.ok(serieReservaService.adicionarExcecao(id, data));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelarSerie(@PathVariable Long id) {
+        serieReservaService.cancelarSerie(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.pduarteo.reserva_salas.dto;
+
+import com.pduarteo.reserva_salas.enums.Frequencia;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record CriarSerieReservaDTO(
+        @NotNull
+        Long salaId,
+
+        @NotNull
+        Frequencia frequencia,
+
+        @NotNull
+        LocalDate dataInicio,
+
+        @NotNull
+        LocalDate dataFim,
+
+        @NotNull
+        LocalTime horaInicio,
+
+        @NotNull
+        LocalTime horaFim,
+
+        @NotBlank @Size(min = 3, max = 100)
+        String responsavel,
+
+        @NotBlank @Email
+        String emailResponsavel,
+
+        @Size(max = 255)
+        String descricao,
+
+        @Min(1)
+        Integer quantidadePessoas
+) {
+}
@@ -0,0 +1,20 @@
+package com.pduarteo.reserva_salas.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Grade semanal de disponibilidade das salas ativas de um andar (segunda a sexta).
+ * Cada sala traz uma máscara por dia, na ordem de dias; os intervalos começam em inicioExpediente
+ * e têm minutosPorIntervalo minutos.
+ */
+public record DisponibilidadeDTO(
+        Integer andar,
+        LocalDate semana,
+        LocalTime inicioExpediente,
+        int minutosPorIntervalo,
+        List<LocalDate> dias,
+        List<DisponibilidadeSalaDTO> salas
+) {
+}
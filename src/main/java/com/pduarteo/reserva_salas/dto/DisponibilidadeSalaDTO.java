@@ -0,0 +1,12 @@
+package com.pduarteo.reserva_salas.dto;
+
+/**
+ * Linha da grade de disponibilidade: uma máscara de 20 bits por dia útil da semana.
+ * O bit i representa o intervalo de 30 minutos que começa em 08:00 + 30 * i; bit ligado = indisponível.
+ */
+public record DisponibilidadeSalaDTO(
+        Long salaId,
+        String nome,
+        int[] indisponivel
+) {
+}
@@ -0,0 +1,27 @@
+package com.pduarteo.reserva_salas.dto;
+
+import com.pduarteo.reserva_salas.enums.StatusEspera;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Situação de um pedido na lista de espera. A posição só é informada enquanto o pedido aguarda;
+ * reservaId é preenchido quando ele é promovido (id é nulo se o horário já estava livre na entrada).
+ */
+public record EntradaEsperaDTO(
+        Long id,
+        Long salaId,
+        LocalDate dataReserva,
+        LocalTime horaInicio,
+        LocalTime horaFim,
+        String responsavel,
+        String emailResponsavel,
+        Integer quantidadePessoas,
+        StatusEspera status,
+        Long posicao,
+        Long reservaId,
+        LocalDateTime criadaEm
+) {
+}
@@ -0,0 +1,13 @@
+package com.pduarteo.reserva_salas.dto;
+
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+
+/**
+ * Evento de alteração de reserva enviado aos assinantes da sala e do andar.
+ */
+public record EventoReservaDTO(
+        TipoEventoReserva tipo,
+        Integer andar,
+        RetornoReservaDTO reserva
+) {
+}
@@ -0,0 +1,25 @@
+package com.pduarteo.reserva_salas.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ocupação de uma sala ou de um andar no período [de, ate].
+ * A taxa é a razão entre os minutos reservados e os minutos de expediente dos dias úteis do período.
+ * No relatório do andar, porSala traz a ocupação de cada sala; no da sala, é nulo.
+ */
+public record OcupacaoDTO(
+        Long salaId,
+        Integer andar,
+        LocalDate de,
+        LocalDate ate,
+        long minutosDisponiveis,
+        long minutosReservados,
+        double taxaOcupacao,
+        long reservas,
+        Map<DayOfWeek, OcupacaoDiaSemanaDTO> porDiaDaSemana,
+        List<OcupacaoDTO> porSala
+) {
+}
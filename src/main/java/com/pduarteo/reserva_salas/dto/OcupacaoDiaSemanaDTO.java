@@ -0,0 +1,9 @@
+package com.pduarteo.reserva_salas.dto;
+
+public record OcupacaoDiaSemanaDTO(
+        long minutosDisponiveis,
+        long minutosReservados,
+        double taxaOcupacao,
+        long reservas
+) {
+}
@@ -0,0 +1,12 @@
+package com.pduarteo.reserva_salas.dto;
+
+import java.util.List;
+
+/**
+ * Página da paginação por cursor: proximoCursor é nulo quando não há mais itens.
+ */
+public record PaginaCursorDTO<T>(
+        List<T> conteudo,
+        String proximoCursor
+) {
+}
@@ -0,0 +1,9 @@
+package com.pduarteo.reserva_salas.dto;
+
+public record ResultadoLoteReservaDTO(
+        int indice,
+        boolean sucesso,
+        RetornoReservaDTO reserva,
+        String erro
+) {
+}
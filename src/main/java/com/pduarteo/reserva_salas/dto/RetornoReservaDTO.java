@@ -3,6 +3,10 @@ package com.pduarteo.reserva_salas.dto;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+/**
+ * Reserva retornada pela API. Ocorrências de séries recorrentes não têm id próprio
+ * e são identificadas pelo serieId; também não têm versão, que só existe para reservas avulsas.
+ */
 public record RetornoReservaDTO(
         Long id,
         Long salaId,
@@ -12,6 +16,17 @@ public record RetornoReservaDTO(
         String responsavel,
         String emailResponsavel,
         String descricao,
-        Integer quantidadePessoas
+        Integer quantidadePessoas,
+        Long serieId,
+        Long versao
 ) {
+    /**
+     * Reserva avulsa, sem série.
+     */
+    public RetornoReservaDTO(Long id, Long salaId, LocalDate dataReserva, LocalTime horaInicio, LocalTime horaFim,
+                             String responsavel, String emailResponsavel, String descricao, Integer quantidadePessoas,
+                             Long versao) {
+        this(id, salaId, dataReserva, horaInicio, horaFim, responsavel, emailResponsavel, descricao, quantidadePessoas,
+                null, versao);
+    }
 }
@@ -4,12 +4,16 @@ import com.pduarteo.reserva_salas.enums.Recurso;
 
 import java.util.Set;
 
+/**
+ * Sala retornada pela API. A versão é a mesma enviada no ETag e esperada no If-Match da atualização.
+ */
 public record RetornoSalaDTO (
         Long id,
         String nome,
         Integer capacidade,
         Integer andar,
         Set<Recurso> recursos,
-        Boolean ativa
+        Boolean ativa,
+        Long versao
 ) {
 }
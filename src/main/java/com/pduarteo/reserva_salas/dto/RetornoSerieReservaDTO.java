@@ -0,0 +1,23 @@
+package com.pduarteo.reserva_salas.dto;
+
+import com.pduarteo.reserva_salas.enums.Frequencia;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public record RetornoSerieReservaDTO(
+        Long id,
+        Long salaId,
+        Frequencia frequencia,
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        LocalTime horaInicio,
+        LocalTime horaFim,
+        String responsavel,
+        String emailResponsavel,
+        String descricao,
+        Integer quantidadePessoas,
+        Set<LocalDate> excecoes
+) {
+}
@@ -0,0 +1,6 @@
+package com.pduarteo.reserva_salas.enums;
+
+public enum Frequencia {
+    DIARIA,
+    SEMANAL
+}
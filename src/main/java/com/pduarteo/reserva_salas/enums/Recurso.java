@@ -1,5 +1,10 @@
 package com.pduarteo.reserva_salas.enums;
 
+/**
+ * Recursos disponíveis em uma sala.
+ * São persistidos como máscara de bits pelo ordinal: novos valores devem ser adicionados
+ * sempre ao final, e os existentes nunca reordenados ou removidos.
+ */
 public enum Recurso {
     PROJETOR,
     QUADRO_BRANCO,
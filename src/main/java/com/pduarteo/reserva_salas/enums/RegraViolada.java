@@ -0,0 +1,31 @@
+package com.pduarteo.reserva_salas.enums;
+
+/**
+ * Regra de negócio responsável pela rejeição de uma operação.
+ * Usada como tag das métricas de rejeição, independente do texto da mensagem.
+ */
+public enum RegraViolada {
+    SALA_INDISPONIVEL,
+    SALA_NAO_ENCONTRADA,
+    SALA_DUPLICADA,
+    RESERVA_NAO_ENCONTRADA,
+    CONFLITO_HORARIO,
+    CAPACIDADE_EXCEDIDA,
+    DATA_PASSADA,
+    HORARIO_INVALIDO,
+    ANTECEDENCIA_MAXIMA,
+    FIM_DE_SEMANA,
+    FORA_DO_EXPEDIENTE,
+    DURACAO_MINIMA,
+    DURACAO_MAXIMA,
+    FORA_DA_GRADE,
+    CANCELAMENTO_PASSADO,
+    SERIE_NAO_ENCONTRADA,
+    SERIE_INVALIDA,
+    CURSOR_INVALIDO,
+    PERIODO_INVALIDO,
+    VERSAO_DESATUALIZADA,
+    CHAVE_IDEMPOTENCIA_REUTILIZADA,
+    CHAVE_IDEMPOTENCIA_EM_USO,
+    ESPERA_NAO_ENCONTRADA
+}
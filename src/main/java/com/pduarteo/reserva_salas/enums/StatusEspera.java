@@ -0,0 +1,8 @@
+package com.pduarteo.reserva_salas.enums;
+
+public enum StatusEspera {
+    AGUARDANDO,
+    PROMOVIDA,
+    EXPIRADA,
+    CANCELADA
+}
@@ -0,0 +1,46 @@
+package com.pduarteo.reserva_salas.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chave de idempotência de uma criação de reserva, com o hash da requisição original e a resposta (JSON).
+ * Mantida apenas por consultas nativas (ChaveIdempotenciaRepository); a entidade é somente leitura.
+ */
+@Entity
+@Immutable
+@Table(name = "idempotencia_reservas")
+public class ChaveIdempotencia {
+
+    @Id
+    private String chave;
+
+    @Column(nullable = false, length = 32)
+    private String hashRequisicao;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String resposta;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+
+    public String getChave() {
+        return chave;
+    }
+
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    public String getResposta() {
+        return resposta;
+    }
+
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+}
@@ -0,0 +1,139 @@
+package com.pduarteo.reserva_salas.model;
+
+import com.pduarteo.reserva_salas.enums.StatusEspera;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Pedido de reserva na lista de espera de um horário lotado.
+ * Enquanto AGUARDANDO, é promovido a reserva quando um cancelamento libera o intervalo pedido;
+ * depois disso a linha fica como histórico, com o id da reserva criada.
+ */
+@Entity
+@Table(name = "lista_espera")
+public class EntradaEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long salaId;
+
+    @Column(nullable = false)
+    private LocalDate dataReserva;
+
+    @Column(nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(nullable = false)
+    private LocalTime horaFim;
+
+    @Column(nullable = false)
+    private String responsavel;
+
+    @Column(nullable = false)
+    private String emailResponsavel;
+
+    private String descricao;
+    private Integer quantidadePessoas;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusEspera status = StatusEspera.AGUARDANDO;
+
+    private Long reservaId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadaEm;
+
+    private LocalDateTime atualizadaEm;
+
+    public EntradaEspera() {
+    }
+
+    public EntradaEspera(Long salaId, LocalDate dataReserva, LocalTime horaInicio, LocalTime horaFim, String responsavel,
+                         String emailResponsavel, String descricao, Integer quantidadePessoas, LocalDateTime criadaEm) {
+        this.salaId = salaId;
+        this.dataReserva = dataReserva;
+        this.horaInicio = horaInicio;
+        this.horaFim = horaFim;
+        this.responsavel = responsavel;
+        this.emailResponsavel = emailResponsavel;
+        this.descricao = descricao;
+        this.quantidadePessoas = quantidadePessoas;
+        this.criadaEm = criadaEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSalaId() {
+        return salaId;
+    }
+
+    public LocalDate getDataReserva() {
+        return dataReserva;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public LocalTime getHoraFim() {
+        return horaFim;
+    }
+
+    public String getResponsavel() {
+        return responsavel;
+    }
+
+    public String getEmailResponsavel() {
+        return emailResponsavel;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public StatusEspera getStatus() {
+        return status;
+    }
+
+    public Long getReservaId() {
+        return reservaId;
+    }
+
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    /**
+     * Registra a reserva criada a partir desta entrada.
+     */
+    public void promover(Long reservaId, LocalDateTime momento) {
+        this.status = StatusEspera.PROMOVIDA;
+        this.reservaId = reservaId;
+        this.atualizadaEm = momento;
+    }
+
+    /**
+     * Retira da fila uma entrada cujo horário já começou.
+     */
+    public void expirar(LocalDateTime momento) {
+        this.status = StatusEspera.EXPIRADA;
+        this.atualizadaEm = momento;
+    }
+}
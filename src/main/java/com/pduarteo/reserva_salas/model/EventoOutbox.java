@@ -0,0 +1,64 @@
+package com.pduarteo.reserva_salas.model;
+
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de reserva pendente de publicação para os sistemas externos (outbox transacional).
+ * A linha é removida assim que o destino confirma o recebimento.
+ */
+@Entity
+@Table(name = "outbox_reservas")
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long salaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEventoReserva tipo;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    public EventoOutbox() {
+    }
+
+    public EventoOutbox(Long salaId, TipoEventoReserva tipo, String payload) {
+        this.salaId = salaId;
+        this.tipo = tipo;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSalaId() {
+        return salaId;
+    }
+
+    public TipoEventoReserva getTipo() {
+        return tipo;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pduarteo.reserva_salas.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Agregado diário de ocupação de uma sala: minutos reservados e quantidade de reservas no dia.
+ * Mantido apenas por upsert (OcupacaoDiariaRepository#registrar); a entidade é somente leitura.
+ */
+@Entity
+@Immutable
+@Table(name = "ocupacao_diaria")
+@IdClass(OcupacaoDiaria.Chave.class)
+public class OcupacaoDiaria {
+
+    @Id
+    private Long salaId;
+
+    @Id
+    private LocalDate data;
+
+    @Column(nullable = false)
+    private Integer minutosReservados;
+
+    @Column(nullable = false)
+    private Integer reservas;
+
+    public Long getSalaId() {
+        return salaId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public Integer getMinutosReservados() {
+        return minutosReservados;
+    }
+
+    public Integer getReservas() {
+        return reservas;
+    }
+
+    public record Chave(Long salaId, LocalDate data) implements Serializable {
+    }
+}
@@ -1,16 +1,29 @@
 package com.pduarteo.reserva_salas.model;
 
+import com.pduarteo.reserva_salas.enums.StatusReserva;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+/**
+ * Reserva avulsa de uma sala.
+ * Reservas canceladas permanecem na tabela com status CANCELADA, mas ficam invisíveis
+ * para todas as consultas da entidade; apenas reservas ativas ocupam horário.
+ */
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_sala_data_inicio", columnList = "sala_id, data_reserva, hora_inicio"),
+        @Index(name = "idx_reservas_email_data", columnList = "email_responsavel, data_reserva")
+})
+@SQLRestriction("status = 'ATIVA'")
 public class Reserva {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -34,6 +47,16 @@ public class Reserva {
     private String descricao;
     private Integer quantidadePessoas;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusReserva status = StatusReserva.ATIVA;
+
+    private LocalDateTime canceladaEm;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     public Reserva() {
     }
 
@@ -120,5 +143,24 @@ public class Reserva {
     public void setQuantidadePessoas(Integer quantidadePessoas) {
         this.quantidadePessoas = quantidadePessoas;
     }
-}
 
+    public StatusReserva getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCanceladaEm() {
+        return canceladaEm;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Marca a reserva como cancelada; a linha é mantida para histórico até ser arquivada.
+     */
+    public void cancelar(LocalDateTime momento) {
+        this.status = StatusReserva.CANCELADA;
+        this.canceladaEm = momento;
+    }
+}
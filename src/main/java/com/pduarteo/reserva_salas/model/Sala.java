@@ -1,9 +1,10 @@
 package com.pduarteo.reserva_salas.model;
 
 import com.pduarteo.reserva_salas.enums.Recurso;
+import com.pduarteo.reserva_salas.support.converters.RecursosConverter;
 import jakarta.persistence.*;
 
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 @Entity
@@ -23,16 +24,16 @@ public class Sala {
     @Column(nullable = false)
     private Integer andar;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(
-            name = "sala_recursos",
-            joinColumns = @JoinColumn(name = "sala_id")
-    )
-    private Set<Recurso> recursos = new HashSet<>();
+    @Convert(converter = RecursosConverter.class)
+    @Column(nullable = false)
+    private Set<Recurso> recursos = EnumSet.noneOf(Recurso.class);
 
     private Boolean ativa = true;
 
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     public Sala() {
     }
 
@@ -41,7 +42,7 @@ public class Sala {
         this.nome = nome;
         this.capacidade = capacidade;
         this.andar = andar;
-        this.recursos = recursos;
+        setRecursos(recursos);
         this.ativa = ativa;
     }
 
@@ -82,7 +83,7 @@ public class Sala {
     }
 
     public void setRecursos(Set<Recurso> recursos) {
-        this.recursos = recursos;
+        this.recursos = recursos == null || recursos.isEmpty() ? EnumSet.noneOf(Recurso.class) : EnumSet.copyOf(recursos);
     }
 
     public Boolean getAtiva() {
@@ -92,4 +93,8 @@ public class Sala {
     public void setAtiva(Boolean ativa) {
         this.ativa = ativa;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
 }
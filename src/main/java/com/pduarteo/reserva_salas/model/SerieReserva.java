@@ -0,0 +1,187 @@
+package com.pduarteo.reserva_salas.model;
+
+import com.pduarteo.reserva_salas.enums.Frequencia;
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Série de reservas recorrentes (diária ou semanal) de uma sala.
+ * As ocorrências não são gravadas como linhas em reservas: são expandidas sob demanda
+ * a partir da regra, do período e das datas de exceção.
+ */
+@Entity
+@Table(name = "series_reserva")
+public class SerieReserva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long salaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Frequencia frequencia;
+
+    @Column(nullable = false)
+    private LocalDate dataInicio;
+
+    @Column(nullable = false)
+    private LocalDate dataFim;
+
+    @Column(nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(nullable = false)
+    private LocalTime horaFim;
+
+    @Column(nullable = false)
+    private String responsavel;
+
+    @Column(nullable = false)
+    private String emailResponsavel;
+
+    private String descricao;
+    private Integer quantidadePessoas;
+
+    @ElementCollection
+    @CollectionTable(
+            name = "series_reserva_excecoes",
+            joinColumns = @JoinColumn(name = "serie_id")
+    )
+    @Column(name = "data")
+    private Set<LocalDate> excecoes = new HashSet<>();
+
+    public SerieReserva() {
+    }
+
+    /**
+     * Indica se a série tem uma ocorrência na data informada.
+     * Ocorrências nunca caem em fins de semana, já que reservas só são permitidas de segunda a sexta.
+     */
+    public boolean ocorreEm(LocalDate data) {
+        if (data.isBefore(dataInicio) || data.isAfter(dataFim) || excecoes.contains(data)) {
+            return false;
+        }
+        DayOfWeek dow = data.getDayOfWeek();
+        if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        return frequencia == Frequencia.DIARIA || dow == dataInicio.getDayOfWeek();
+    }
+
+    /**
+     * Expande as ocorrências da série dentro da janela [de, ate].
+     */
+    public Stream<LocalDate> ocorrencias(LocalDate de, LocalDate ate) {
+        LocalDate primeiro = de.isAfter(dataInicio) ? de : dataInicio;
+        LocalDate ultimo = ate.isBefore(dataFim) ? ate : dataFim;
+        if (primeiro.isAfter(ultimo)) {
+            return Stream.empty();
+        }
+        return primeiro.datesUntil(ultimo.plusDays(1)).filter(this::ocorreEm);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSalaId() {
+        return salaId;
+    }
+
+    public void setSalaId(Long salaId) {
+        this.salaId = salaId;
+    }
+
+    public Frequencia getFrequencia() {
+        return frequencia;
+    }
+
+    public void setFrequencia(Frequencia frequencia) {
+        this.frequencia = frequencia;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public void setHoraInicio(LocalTime horaInicio) {
+        this.horaInicio = horaInicio;
+    }
+
+    public LocalTime getHoraFim() {
+        return horaFim;
+    }
+
+    public void setHoraFim(LocalTime horaFim) {
+        this.horaFim = horaFim;
+    }
+
+    public String getResponsavel() {
+        return responsavel;
+    }
+
+    public void setResponsavel(String responsavel) {
+        this.responsavel = responsavel;
+    }
+
+    public String getEmailResponsavel() {
+        return emailResponsavel;
+    }
+
+    public void setEmailResponsavel(String emailResponsavel) {
+        this.emailResponsavel = emailResponsavel;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public Integer getQuantidadePessoas() {
+        return quantidadePessoas;
+    }
+
+    public void setQuantidadePessoas(Integer quantidadePessoas) {
+        this.quantidadePessoas = quantidadePessoas;
+    }
+
+    public Set<LocalDate> getExcecoes() {
+        return excecoes;
+    }
+
+    public void setExcecoes(Set<LocalDate> excecoes) {
+        this.excecoes = excecoes;
+    }
+}
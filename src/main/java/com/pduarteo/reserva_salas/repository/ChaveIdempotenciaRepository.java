@@ -0,0 +1,46 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.model.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    /**
+     * Insere a chave ainda sem resposta. Se outra transação inseriu a mesma chave e não terminou,
+     * o insert espera por ela; retorna 0 se a chave já existir.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotencia_reservas (chave, hash_requisicao) VALUES (:chave, :hash)
+            ON CONFLICT (chave) DO NOTHING
+            """, nativeQuery = true)
+    int reservar(@Param("chave") String chave, @Param("hash") String hashRequisicao);
+
+    /**
+     * Reaproveita uma chave vencida para uma nova requisição; retorna 0 se a chave ainda é válida.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE idempotencia_reservas SET hash_requisicao = :hash, resposta = NULL, criada_em = now()
+            WHERE chave = :chave AND criada_em < now() - make_interval(secs => :validadeSegundos)
+            """, nativeQuery = true)
+    int renovarVencida(@Param("chave") String chave, @Param("hash") String hashRequisicao,
+                       @Param("validadeSegundos") long validadeSegundos);
+
+    @Modifying
+    @Query(value = "UPDATE idempotencia_reservas SET resposta = CAST(:resposta AS jsonb) WHERE chave = :chave",
+            nativeQuery = true)
+    int registrarResposta(@Param("chave") String chave, @Param("resposta") String resposta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotencia_reservas WHERE criada_em < now() - make_interval(secs => :validadeSegundos)",
+            nativeQuery = true)
+    int removerVencidas(@Param("validadeSegundos") long validadeSegundos);
+}
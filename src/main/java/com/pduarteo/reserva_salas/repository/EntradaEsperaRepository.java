@@ -0,0 +1,81 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.model.EntradaEspera;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EntradaEsperaRepository extends JpaRepository<EntradaEspera, Long> {
+
+    /**
+     * Entradas aguardando que se sobrepõem ao intervalo, em ordem de chegada, bloqueadas (FOR UPDATE)
+     * para que cancelamentos concorrentes no mesmo dia não promovam a mesma entrada.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select e from EntradaEspera e
+            where e.salaId = :salaId and e.dataReserva = :data
+              and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+              and e.horaInicio < :horaFim and e.horaFim > :horaInicio
+            order by e.id
+            """)
+    List<EntradaEspera> bloquearAguardando(Long salaId, LocalDate data, LocalTime horaInicio, LocalTime horaFim);
+
+    @Query("""
+            select e from EntradaEspera e
+            where e.salaId = :salaId and e.dataReserva = :data
+              and e.horaInicio = :horaInicio and e.horaFim = :horaFim
+              and e.emailResponsavel = :email
+              and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+            """)
+    Optional<EntradaEspera> buscarAguardando(Long salaId, LocalDate data, LocalTime horaInicio, LocalTime horaFim, String email);
+
+    /**
+     * Posição na fila da sala/dia: quantas entradas aguardando chegaram antes, mais um.
+     */
+    @Query("""
+            select count(e) + 1 from EntradaEspera e
+            where e.salaId = :salaId and e.dataReserva = :data and e.id < :id
+              and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+            """)
+    long posicao(Long salaId, LocalDate data, Long id);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update EntradaEspera e
+            set e.status = com.pduarteo.reserva_salas.enums.StatusEspera.CANCELADA, e.atualizadaEm = :momento
+            where e.id = :id and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+            """)
+    int sair(Long id, LocalDateTime momento);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update EntradaEspera e
+            set e.status = com.pduarteo.reserva_salas.enums.StatusEspera.PROMOVIDA, e.reservaId = :reservaId,
+                e.atualizadaEm = :momento
+            where e.id = :id and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+            """)
+    int promover(Long id, Long reservaId, LocalDateTime momento);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update EntradaEspera e
+            set e.status = com.pduarteo.reserva_salas.enums.StatusEspera.EXPIRADA, e.atualizadaEm = :momento
+            where e.dataReserva < :data and e.status = com.pduarteo.reserva_salas.enums.StatusEspera.AGUARDANDO
+            """)
+    int expirarAnterioresA(LocalDate data, LocalDateTime momento);
+}
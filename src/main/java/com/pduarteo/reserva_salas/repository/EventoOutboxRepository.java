@@ -0,0 +1,41 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Lock consultivo da transação: garante um único relay drenando o outbox entre todas as instâncias,
+     * preservando a ordem dos eventos de cada sala. É liberado automaticamente no fim da transação.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_reservas'))", nativeQuery = true)
+    boolean tentarBloquearRelay();
+
+    /**
+     * Lock consultivo da sala no outbox, liberado no fim da transação. Os eventos são inseridos só ao fim da
+     * transação e com a sala bloqueada, então os ids de cada sala seguem a ordem dos commits: quando o relay
+     * enxerga um evento, todos os anteriores da mesma sala já estão confirmados.
+     * Também usado pelo perfil reativo, com os mesmos parâmetros nomeados.
+     */
+    String BLOQUEAR_SALA = """
+            SELECT 1 FROM pg_advisory_xact_lock(hashtext('outbox_sala'), hashtext(CAST(:salaId AS text)))
+            """;
+
+    @Query(value = BLOQUEAR_SALA, nativeQuery = true)
+    int bloquearSala(Long salaId);
+
+    List<EventoOutbox> findAllByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    /**
+     * Próxima página do outbox sem os eventos das salas informadas (as que falharam no ciclo corrente).
+     */
+    List<EventoOutbox> findAllByIdGreaterThanAndSalaIdNotInOrderByIdAsc(Long id, Collection<Long> salas, Limit limite);
+}
@@ -0,0 +1,55 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.model.OcupacaoDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OcupacaoDiariaRepository extends JpaRepository<OcupacaoDiaria, OcupacaoDiaria.Chave> {
+
+    /**
+     * Soma os deltas ao agregado da sala no dia, criando a linha se ainda não existir.
+     * Também usado pelo perfil reativo, com os mesmos parâmetros nomeados.
+     */
+    String UPSERT = """
+            INSERT INTO ocupacao_diaria (sala_id, data, minutos_reservados, reservas)
+            VALUES (:salaId, :data, :minutos, :reservas)
+            ON CONFLICT (sala_id, data) DO UPDATE
+            SET minutos_reservados = ocupacao_diaria.minutos_reservados + EXCLUDED.minutos_reservados,
+                reservas = ocupacao_diaria.reservas + EXCLUDED.reservas
+            """;
+
+    @Modifying
+    @Query(value = UPSERT, nativeQuery = true)
+    void registrar(Long salaId, LocalDate data, int minutos, int reservas);
+
+    /**
+     * Totais por sala e dia da semana (ISO, 1 = segunda) no período; lê uma linha por sala e dia.
+     */
+    @Query(value = """
+            SELECT o.sala_id AS "salaId",
+                   CAST(extract(isodow FROM o.data) AS integer) AS "diaSemana",
+                   sum(o.minutos_reservados) AS "minutos",
+                   sum(o.reservas) AS "reservas"
+            FROM ocupacao_diaria o
+            WHERE o.sala_id IN (:salaIds) AND o.data BETWEEN :de AND :ate
+            GROUP BY o.sala_id, extract(isodow FROM o.data)
+            """, nativeQuery = true)
+    List<TotalPorDiaSemana> totaisPorDiaSemana(Collection<Long> salaIds, LocalDate de, LocalDate ate);
+
+    interface TotalPorDiaSemana {
+        Long getSalaId();
+
+        Integer getDiaSemana();
+
+        Long getMinutos();
+
+        Long getReservas();
+    }
+}
@@ -0,0 +1,145 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Time;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inserção das reservas de um lote por JDBC, na transação corrente.
+ * Não passa pelo Hibernate porque uma falha de flush marca a transação inteira para rollback,
+ * e aqui um item recusado pela constraint de exclusão não pode derrubar os demais.
+ */
+@Repository
+public class ReservaLoteRepository {
+
+    private static final String INSERT = """
+            INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel,
+                                  descricao, quantidade_pessoas)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    // Incremento de reservas_seq: cada valor é o topo de um bloco de ids, como no otimizador pooled do Hibernate
+    private static final int BLOCO_SEQUENCIA = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere as reservas em um único batch, sob um savepoint. Se alguma violar a constraint de exclusão
+     * (sobreposição confirmada por outra transação depois das verificações do lote), o batch é desfeito até
+     * o savepoint e os itens são inseridos um a um, cada um com seu savepoint: só os itens em conflito falham.
+     * @return reserva gravada de cada item, na ordem da entrada; null para os itens recusados pelo banco
+     */
+    public List<RetornoReservaDTO> inserir(List<CriarReservaDTO> itens) {
+        if (itens.isEmpty()) {
+            return List.of();
+        }
+        long[] ids = alocarIds(itens.size());
+        Savepoint lote = savepoint();
+        try {
+            jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    preencher(ps, ids[i], itens.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return itens.size();
+                }
+            });
+            liberar(lote);
+            List<RetornoReservaDTO> gravadas = new ArrayList<>(itens.size());
+            for (int i = 0; i < itens.size(); i++) {
+                gravadas.add(paraDTO(ids[i], itens.get(i)));
+            }
+            return gravadas;
+        } catch (DataIntegrityViolationException e) {
+            desfazer(lote);
+        }
+
+        List<RetornoReservaDTO> gravadas = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            long id = ids[i];
+            CriarReservaDTO item = itens.get(i);
+            Savepoint unitario = savepoint();
+            try {
+                jdbcTemplate.update(INSERT, ps -> preencher(ps, id, item));
+                liberar(unitario);
+                gravadas.add(paraDTO(id, item));
+            } catch (DataIntegrityViolationException e) {
+                desfazer(unitario);
+                gravadas.add(null);
+            }
+        }
+        return gravadas;
+    }
+
+    // Um valor da sequência por bloco de 50 ids, usados do topo do bloco para baixo
+    private long[] alocarIds(int quantidade) {
+        int blocos = Math.ceilDiv(quantidade, BLOCO_SEQUENCIA);
+        List<Long> topos = jdbcTemplate.queryForList("SELECT nextval('reservas_seq') FROM generate_series(1, ?)",
+                Long.class, blocos);
+        long[] ids = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            ids[i] = topos.get(i / BLOCO_SEQUENCIA) - BLOCO_SEQUENCIA + 1 + i % BLOCO_SEQUENCIA;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static void preencher(PreparedStatement ps, long id, CriarReservaDTO item) throws SQLException {
+        ps.setLong(1, id);
+        ps.setLong(2, item.salaId());
+        ps.setDate(3, Date.valueOf(item.dataReserva()));
+        ps.setTime(4, Time.valueOf(item.horaInicio()));
+        ps.setTime(5, Time.valueOf(item.horaFim()));
+        ps.setString(6, item.responsavel());
+        ps.setString(7, item.emailResponsavel());
+        ps.setString(8, item.descricao());
+        if (item.quantidadePessoas() != null) {
+            ps.setInt(9, item.quantidadePessoas());
+        } else {
+            ps.setNull(9, Types.INTEGER);
+        }
+    }
+
+    // Reserva recém-inserida: versão inicial 0, o default da coluna
+    private static RetornoReservaDTO paraDTO(long id, CriarReservaDTO item) {
+        return new RetornoReservaDTO(id, item.salaId(), item.dataReserva(), item.horaInicio(), item.horaFim(),
+                item.responsavel(), item.emailResponsavel(), item.descricao(), item.quantidadePessoas(), 0L);
+    }
+
+    private Savepoint savepoint() {
+        return jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+    }
+
+    private void liberar(Savepoint savepoint) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            conexao.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private void desfazer(Savepoint savepoint) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            conexao.rollback(savepoint);
+            return null;
+        });
+    }
+}
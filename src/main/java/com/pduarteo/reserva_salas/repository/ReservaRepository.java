@@ -1,24 +1,137 @@
 package com.pduarteo.reserva_salas.repository;
 
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
 import com.pduarteo.reserva_salas.model.Reserva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
-    List<Reserva> findAllBySalaId(Long id);
+    /**
+     * Projeção das consultas de leitura: monta o RetornoReservaDTO direto do resultado,
+     * sem carregar entidades gerenciadas no contexto de persistência.
+     */
+    String PROJECAO_RETORNO = """
+            select new com.pduarteo.reserva_salas.dto.RetornoReservaDTO(
+                r.id, r.salaId, r.dataReserva, r.horaInicio, r.horaFim,
+                r.responsavel, r.emailResponsavel, r.descricao, r.quantidadePessoas, r.versao)
+            from Reserva r
+            """;
 
-    List<Reserva> findAllByEmailResponsavel(String email);
+    List<Reserva> findAllByDataReservaGreaterThanEqual(LocalDate data);
 
-    boolean existsBySalaIdAndDataReservaAndHoraInicioLessThanAndHoraFimGreaterThan(
-            Long salaId,
-            LocalDate dataReserva,
-            LocalTime horaFim,
-            LocalTime horaInicio
-    );
+    List<Reserva> findAllBySalaIdAndDataReservaBetween(Long salaId, LocalDate de, LocalDate ate);
+
+    List<Reserva> findAllBySalaIdInAndDataReservaIn(Collection<Long> salaIds, Collection<LocalDate> datas);
+
+    /**
+     * Lock consultivo da sala/dia, liberado no fim da transação. Serializa tudo o que ocupa ou libera horários
+     * do dia: reservas avulsas, lotes, séries (que não estão na constraint de exclusão), cancelamentos e a lista
+     * de espera. Quem o obtém enxerga, nas consultas seguintes, tudo o que as transações anteriores gravaram.
+     * Quem precisa de vários dias os bloqueia em ordem de sala e data, e um cancelamento o obtém antes de
+     * alterar a reserva, para não esperar pelo lock segurando uma linha que outra transação precisa ler.
+     * Também usado pelo perfil reativo, com os mesmos parâmetros nomeados.
+     */
+    String BLOQUEAR_DIA = """
+            SELECT 1 FROM pg_advisory_xact_lock(hashtext('sala_dia'),
+                                                hashtext(CAST(:salaId AS text) || ':' || CAST(:data AS text)))
+            """;
+
+    @Query(value = BLOQUEAR_DIA, nativeQuery = true)
+    int bloquearDia(Long salaId, LocalDate data);
+
+    /**
+     * Intervalos ocupados das salas ativas do andar entre as datas: reservas ativas e ocorrências de séries,
+     * expandidas com as regras de SerieReserva#ocorreEm (dias úteis, dia da semana do início nas semanais, exceções).
+     */
+    @Query(value = """
+            SELECT r.sala_id AS "salaId", r.data_reserva AS "data", r.hora_inicio AS "horaInicio", r.hora_fim AS "horaFim"
+            FROM reservas r
+            JOIN salas s ON s.id = r.sala_id
+            WHERE s.andar = :andar AND s.ativa AND r.status = 'ATIVA' AND r.data_reserva BETWEEN :de AND :ate
+            UNION ALL
+            SELECT se.sala_id, CAST(d AS date), se.hora_inicio, se.hora_fim
+            FROM series_reserva se
+            JOIN salas s ON s.id = se.sala_id
+            CROSS JOIN generate_series(GREATEST(se.data_inicio, CAST(:de AS date)), LEAST(se.data_fim, CAST(:ate AS date)),
+                                       INTERVAL '1 day') AS d
+            WHERE s.andar = :andar AND s.ativa AND se.data_inicio <= :ate AND se.data_fim >= :de
+              AND extract(isodow FROM d) < 6
+              AND (se.frequencia = 'DIARIA' OR extract(isodow FROM d) = extract(isodow FROM se.data_inicio))
+              AND NOT EXISTS (SELECT 1 FROM series_reserva_excecoes e WHERE e.serie_id = se.id AND e.data = CAST(d AS date))
+            """, nativeQuery = true)
+    List<IntervaloOcupado> listarOcupadosDoAndar(Integer andar, LocalDate de, LocalDate ate);
+
+    interface IntervaloOcupado {
+        Long getSalaId();
+
+        LocalDate getData();
+
+        LocalTime getHoraInicio();
+
+        LocalTime getHoraFim();
+    }
+
+    /**
+     * Indica se alguma reserva ativa da sala no dia se sobrepõe ao intervalo [horaInicio, horaFim).
+     */
+    @Query("""
+            select count(r) > 0 from Reserva r
+            where r.salaId = :salaId and r.dataReserva = :data
+              and r.horaInicio < :horaFim and r.horaFim > :horaInicio
+            """)
+    boolean existeSobreposicao(Long salaId, LocalDate data, LocalTime horaInicio, LocalTime horaFim);
+
+    @Query(value = PROJECAO_RETORNO, countQuery = "select count(r) from Reserva r")
+    Page<RetornoReservaDTO> listarRetornos(Pageable pageable);
+
+    @Query(PROJECAO_RETORNO + "where r.id > :id")
+    Slice<RetornoReservaDTO> listarRetornosAposId(Long id, Pageable pageable);
+
+    @Query(PROJECAO_RETORNO + "where r.id = :id")
+    Optional<RetornoReservaDTO> buscarRetornoPorId(Long id);
+
+    @Query(PROJECAO_RETORNO + "where r.salaId = :salaId and r.dataReserva between :de and :ate")
+    List<RetornoReservaDTO> listarRetornosPorSala(Long salaId, LocalDate de, LocalDate ate);
+
+    @Query(PROJECAO_RETORNO + "where r.emailResponsavel = :email")
+    List<RetornoReservaDTO> listarRetornosPorEmail(String email);
+
+    /**
+     * Reservas filtradas por sala, responsável e/ou período (filtros nulos são ignorados), em ordem de id.
+     * Lidas por cursor JDBC com fetch size e projetadas direto no DTO; deve ser consumido dentro de transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PROJECAO_RETORNO + """
+            where (:salaId is null or r.salaId = :salaId)
+              and (:email is null or r.emailResponsavel = :email)
+              and (cast(:de as LocalDate) is null or r.dataReserva >= :de)
+              and (cast(:ate as LocalDate) is null or r.dataReserva <= :ate)
+            order by r.id
+            """)
+    Stream<RetornoReservaDTO> streamFiltradas(Long salaId, String email, LocalDate de, LocalDate ate);
+
+    /**
+     * Move para reservas_arquivo as reservas do mês mais antigo anterior ao limite (função da migração V7).
+     * Cada chamada é uma transação curta; retorna 0 quando não há mais nada a arquivar.
+     */
+    @Transactional
+    @Query(value = "SELECT arquivar_reservas(:limite)", nativeQuery = true)
+    int arquivarMesAnteriorA(LocalDate limite);
 }
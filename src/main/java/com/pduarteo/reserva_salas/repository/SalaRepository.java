@@ -1,10 +1,81 @@
 package com.pduarteo.reserva_salas.repository;
 
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
 import com.pduarteo.reserva_salas.model.Sala;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface SalaRepository extends JpaRepository<Sala, Long> {
+    /**
+     * Projeção das consultas de leitura: monta o RetornoSalaDTO direto do resultado,
+     * sem carregar entidades gerenciadas no contexto de persistência.
+     */
+    String PROJECAO_RETORNO = """
+            select new com.pduarteo.reserva_salas.dto.RetornoSalaDTO(s.id, s.nome, s.capacidade, s.andar, s.recursos, s.ativa, s.versao)
+            from Sala s
+            """;
+
     boolean existsByNomeIgnoreCaseAndAndar(String nome, Integer andar);
+
+    boolean existsByAndar(Integer andar);
+
+    @Query("select s.id from Sala s where s.andar = :andar")
+    List<Long> listarIdsPorAndar(Integer andar);
+
+    @Query(value = PROJECAO_RETORNO, countQuery = "select count(s) from Sala s")
+    Page<RetornoSalaDTO> listarRetornos(Pageable pageable);
+
+    @Query(PROJECAO_RETORNO + "where s.id > :id")
+    Slice<RetornoSalaDTO> listarRetornosAposId(Long id, Pageable pageable);
+
+    @Query(PROJECAO_RETORNO + "where s.id = :id")
+    Optional<RetornoSalaDTO> buscarRetornoPorId(Long id);
+
+    @Query(PROJECAO_RETORNO + "where s.andar = :andar and s.ativa = true order by s.id")
+    List<RetornoSalaDTO> listarRetornosAtivosPorAndar(Integer andar);
+
+    /**
+     * Salas ativas com capacidade mínima que possuem todos os recursos da máscara informada.
+     */
+    @Query(value = """
+            select * from salas s
+            where s.ativa = true
+              and s.capacidade >= :capacidade
+              and (s.recursos & :recursos) = :recursos
+            """, nativeQuery = true)
+    List<Sala> findAtivasComCapacidadeERecursos(Integer capacidade, int recursos);
+
+    /**
+     * Salas, entre as informadas, com reserva ativa ou ocorrência de série que se sobrepõe ao intervalo
+     * [inicio, fim) na data. As ocorrências seguem SerieReserva#ocorreEm: dias úteis, o dia da semana
+     * do início nas séries semanais e nenhuma exceção na data.
+     * Também usado pelo perfil reativo, com os mesmos parâmetros nomeados.
+     */
+    String OCUPADAS_NO_INTERVALO = """
+            SELECT r.sala_id FROM reservas r
+            WHERE r.status = 'ATIVA' AND r.sala_id IN (:salaIds) AND r.data_reserva = :data
+              AND r.hora_inicio < :fim AND r.hora_fim > :inicio
+            UNION
+            SELECT s.sala_id FROM series_reserva s
+            WHERE s.sala_id IN (:salaIds) AND s.data_inicio <= :data AND s.data_fim >= :data
+              AND s.hora_inicio < :fim AND s.hora_fim > :inicio
+              AND extract(isodow FROM CAST(:data AS date)) < 6
+              AND (s.frequencia = 'DIARIA' OR extract(isodow FROM CAST(:data AS date)) = extract(isodow FROM s.data_inicio))
+              AND NOT EXISTS (SELECT 1 FROM series_reserva_excecoes e WHERE e.serie_id = s.id AND e.data = :data)
+            """;
+
+    @Query(value = OCUPADAS_NO_INTERVALO, nativeQuery = true)
+    Set<Long> findOcupadasNoIntervalo(Collection<Long> salaIds, LocalDate data, LocalTime inicio, LocalTime fim);
 }
@@ -0,0 +1,38 @@
+package com.pduarteo.reserva_salas.repository;
+
+import com.pduarteo.reserva_salas.model.SerieReserva;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SerieReservaRepository extends JpaRepository<SerieReserva, Long> {
+
+    @EntityGraph(attributePaths = "excecoes")
+    List<SerieReserva> findAllBySalaIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqual(Long salaId, LocalDate ate, LocalDate de);
+
+    @EntityGraph(attributePaths = "excecoes")
+    List<SerieReserva> findAllBySalaIdInAndDataInicioLessThanEqualAndDataFimGreaterThanEqual(Collection<Long> salaIds, LocalDate ate, LocalDate de);
+
+    @EntityGraph(attributePaths = "excecoes")
+    List<SerieReserva> findAllByDataFimGreaterThanEqual(LocalDate data);
+
+    /**
+     * Séries da sala cujo período cobre as datas informadas e cujo horário se sobrepõe a [horaInicio, horaFim).
+     * Cabe ao chamador verificar se há ocorrência efetiva nas datas (frequência e exceções).
+     */
+    @EntityGraph(attributePaths = "excecoes")
+    @Query("""
+            select s from SerieReserva s
+            where s.salaId = :salaId
+              and s.dataInicio <= :ate and s.dataFim >= :de
+              and s.horaInicio < :horaFim and s.horaFim > :horaInicio
+            """)
+    List<SerieReserva> findConflitantes(Long salaId, LocalDate de, LocalDate ate, LocalTime horaInicio, LocalTime horaFim);
+}
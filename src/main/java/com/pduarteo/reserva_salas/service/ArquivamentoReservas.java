@@ -0,0 +1,68 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.repository.EntradaEsperaRepository;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Rotina diária que mantém a tabela de reservas restrita à janela recente.
+ * Reservas (ativas ou canceladas) com data anterior à retenção são movidas, mês a mês,
+ * para a tabela particionada reservas_arquivo; em seguida o índice de ocupação descarta os dias passados
+ * e as entradas da lista de espera de dias passados são expiradas.
+ * Assim as consultas quentes e a constraint de exclusão trabalham apenas sobre os últimos dias
+ * e os 90 dias à frente permitidos para novas reservas.
+ */
+@Component
+public class ArquivamentoReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoReservas.class);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex;
+    @Autowired
+    private ReservaCache reservaCache;
+    @Autowired
+    private EntradaEsperaRepository entradaEsperaRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reservas.arquivamento.retencao-dias}")
+    private int retencaoDias;
+
+    /**
+     * Arquiva as reservas anteriores a hoje menos a retenção configurada.
+     * Cada mês é movido em sua própria transação, evitando transações longas sobre a tabela quente.
+     * @return quantidade de reservas arquivadas
+     */
+    @Scheduled(cron = "${reservas.arquivamento.cron}", zone = "America/Fortaleza")
+    public int arquivar() {
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        int total = 0;
+        int movidas;
+        while ((movidas = reservaRepository.arquivarMesAnteriorA(hoje.minusDays(retencaoDias))) > 0) {
+            total += movidas;
+        }
+        if (total > 0) {
+            reservaCache.invalidarTodas();
+        }
+        int descartadas = ocupacaoIndex.descartarAnterioresA(hoje);
+        int expiradas = entradaEsperaRepository.expirarAnterioresA(hoje, LocalDateTime.now(ZoneId.of("America/Fortaleza")));
+
+        meterRegistry.counter("reservas.arquivadas").increment(total);
+        log.info("Arquivamento concluído: {} reservas movidas para reservas_arquivo, {} dias descartados do índice, "
+                + "{} entradas da lista de espera expiradas", total, descartadas, expiradas);
+        return total;
+    }
+}
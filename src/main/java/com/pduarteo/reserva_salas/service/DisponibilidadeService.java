@@ -0,0 +1,93 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.DisponibilidadeDTO;
+import com.pduarteo.reserva_salas.dto.DisponibilidadeSalaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import com.pduarteo.reserva_salas.repository.SalaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta a grade semanal de disponibilidade de um andar a partir do banco, com uma consulta para as salas ativas
+ * do andar e outra para os intervalos ocupados da semana (reservas e ocorrências de séries).
+ * O índice de ocupação não é usado: ele é local à instância, e a grade (e o ETag calculado sobre ela)
+ * precisa ser a mesma em qualquer instância para que um 304 nunca confirme uma grade desatualizada.
+ */
+@Service
+public class DisponibilidadeService {
+
+    static final int DIA_INTEIRO = (1 << OcupacaoIndex.TOTAL_INTERVALOS) - 1;
+    private static final int DIAS_UTEIS = 5;
+
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    /**
+     * Grade da semana que contém a data informada (padrão: semana atual).
+     * Intervalos já encerrados e dias fora da janela de reserva (passado ou além de 90 dias) saem indisponíveis.
+     * @param andar andar das salas
+     * @param semana qualquer data da semana desejada (opcional)
+     * @return DisponibilidadeDTO com uma máscara por sala e dia útil
+     */
+    @Transactional(readOnly = true)
+    public DisponibilidadeDTO montar(Integer andar, LocalDate semana) {
+        LocalDateTime agora = LocalDateTime.now(ZoneId.of("America/Fortaleza"));
+        LocalDate hoje = agora.toLocalDate();
+        LocalDate segunda = (semana != null ? semana : hoje).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<LocalDate> dias = segunda.datesUntil(segunda.plusDays(DIAS_UTEIS)).toList();
+
+        // Máscara do que não pode mais ser reservado em cada dia, independente da sala
+        int[] bloqueados = new int[DIAS_UTEIS];
+        for (int d = 0; d < DIAS_UTEIS; d++) {
+            LocalDate dia = dias.get(d);
+            if (dia.isBefore(hoje) || dia.isAfter(hoje.plusDays(90))) {
+                bloqueados[d] = DIA_INTEIRO;
+            } else if (dia.isEqual(hoje)) {
+                bloqueados[d] = OcupacaoIndex.mascara(OcupacaoIndex.INICIO_EXPEDIENTE, inicioDoIntervaloAtual(agora.toLocalTime()));
+            }
+        }
+
+        // Máscara ocupada de cada sala em cada dia, acumulada a partir dos intervalos da semana
+        Map<Long, int[]> ocupados = new HashMap<>();
+        List<ReservaRepository.IntervaloOcupado> intervalos =
+                reservaRepository.listarOcupadosDoAndar(andar, segunda, dias.get(DIAS_UTEIS - 1));
+        for (ReservaRepository.IntervaloOcupado intervalo : intervalos) {
+            int d = (int) ChronoUnit.DAYS.between(segunda, intervalo.getData());
+            ocupados.computeIfAbsent(intervalo.getSalaId(), sala -> new int[DIAS_UTEIS])[d]
+                    |= OcupacaoIndex.mascara(intervalo.getHoraInicio(), intervalo.getHoraFim());
+        }
+
+        List<RetornoSalaDTO> salas = salaRepository.listarRetornosAtivosPorAndar(andar);
+        List<DisponibilidadeSalaDTO> linhas = salas.stream().map(sala -> {
+            int[] ocupado = ocupados.getOrDefault(sala.id(), new int[DIAS_UTEIS]);
+            int[] indisponivel = new int[DIAS_UTEIS];
+            for (int d = 0; d < DIAS_UTEIS; d++) {
+                indisponivel[d] = bloqueados[d] == DIA_INTEIRO ? DIA_INTEIRO : bloqueados[d] | ocupado[d];
+            }
+            return new DisponibilidadeSalaDTO(sala.id(), sala.nome(), indisponivel);
+        }).toList();
+
+        return new DisponibilidadeDTO(andar, segunda, OcupacaoIndex.INICIO_EXPEDIENTE,
+                OcupacaoIndex.MINUTOS_POR_INTERVALO, dias, linhas);
+    }
+
+    // Intervalos que terminam até o horário atual já foram encerrados
+    private static LocalTime inicioDoIntervaloAtual(LocalTime agora) {
+        return agora.withSecond(0).withNano(0).minusMinutes(agora.getMinute() % OcupacaoIndex.MINUTOS_POR_INTERVALO);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Criação de reservas com Idempotency-Key, para clientes que repetem o POST após um timeout.
+ * Uma repetição com a mesma chave e o mesmo corpo recebe a reserva criada pela requisição original,
+ * sem passar de novo pelas validações e pela verificação de conflito do ReservaService.
+ */
+@Service
+public class IdempotenciaReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private RegistroIdempotencia registroIdempotencia;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Cria a reserva uma única vez por chave; repetições são contadas em reservas.idempotencia.repeticoes.
+     * @param chave valor do cabeçalho Idempotency-Key
+     * @param dto DTO com os dados da reserva
+     * @return reserva criada (ou registrada pela requisição original) e se a requisição foi uma repetição
+     * @throws com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException em caso de violação de regras
+     *         de negócio ou de chave reutilizada com outro corpo
+     */
+    public RegistroIdempotencia.Resultado criarReserva(String chave, CriarReservaDTO dto) {
+        RegistroIdempotencia.Resultado resultado = registroIdempotencia.executar(chave, hash(dto),
+                () -> reservaService.criarReserva(dto));
+        if (resultado.repetida()) {
+            meterRegistry.counter("reservas.idempotencia.repeticoes").increment();
+        }
+        return resultado;
+    }
+
+    private String hash(CriarReservaDTO dto) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(dto));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a requisição", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.EntradaEsperaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.enums.StatusEspera;
+import com.pduarteo.reserva_salas.model.EntradaEspera;
+import com.pduarteo.reserva_salas.repository.EntradaEsperaRepository;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Serviço da lista de espera por horários lotados.
+ * O pedido passa pelas mesmas regras de criarReserva; só entra na fila se a única recusa for o
+ * conflito de horário. A promoção acontece em ReservaService.cancelarReserva, na transação do cancelamento,
+ * de modo que quem espera não precisa repetir a criação até encontrar o horário livre.
+ */
+@Service
+public class ListaEsperaService {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private EntradaEsperaRepository entradaEsperaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Tenta criar a reserva e, se o horário estiver ocupado, registra o pedido na fila.
+     * Um pedido repetido (mesma sala, dia, horário e email) devolve a entrada que já aguarda.
+     * Gravada a entrada, a criação é tentada mais uma vez: um cancelamento confirmado entre a recusa e a gravação
+     * não viu a entrada na fila, e sem a nova tentativa ela aguardaria um horário já livre.
+     * @param dto dados da reserva desejada
+     * @return entrada PROMOVIDA se a reserva foi criada (sem id se nem chegou à fila), ou a entrada AGUARDANDO
+     * @throws RegraNegocioException se o pedido violar qualquer outra regra da reserva
+     */
+    public EntradaEsperaDTO entrar(CriarReservaDTO dto) {
+        Optional<RetornoReservaDTO> criada = tentarCriar(dto);
+        if (criada.isPresent()) {
+            RetornoReservaDTO reserva = criada.get();
+            return new EntradaEsperaDTO(null, reserva.salaId(), reserva.dataReserva(), reserva.horaInicio(),
+                    reserva.horaFim(), reserva.responsavel(), reserva.emailResponsavel(), reserva.quantidadePessoas(),
+                    StatusEspera.PROMOVIDA, null, reserva.id(), null);
+        }
+
+        EntradaEspera entrada;
+        try {
+            entrada = transactionTemplate.execute(status -> registrar(dto));
+        } catch (DataIntegrityViolationException e) {
+            // Pedido idêntico gravado em paralelo (uk_lista_espera_aguardando): devolve a entrada dele
+            entrada = entradaEsperaRepository
+                    .buscarAguardando(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim(), dto.emailResponsavel())
+                    .orElseThrow(() -> e);
+        }
+
+        Long entradaId = entrada.getId();
+        tentarCriar(dto).ifPresent(reserva ->
+                entradaEsperaRepository.promover(entradaId, reserva.id(), LocalDateTime.now(ZoneId.of("America/Fortaleza"))));
+        return buscar(entradaId);
+    }
+
+    /**
+     * Cria a reserva se o horário estiver livre.
+     * A constraint de exclusão (SQLState 23P01) recusando uma sobreposição gravada por outra escrita
+     * concorrente é o mesmo conflito de horário e também leva à fila.
+     * @return vazio se a recusa foi o conflito de horário
+     * @throws RegraNegocioException se o pedido violar qualquer outra regra da reserva
+     */
+    private Optional<RetornoReservaDTO> tentarCriar(CriarReservaDTO dto) {
+        try {
+            return Optional.of(reservaService.criarReserva(dto));
+        } catch (RegraNegocioException e) {
+            if (e.getRegra() != RegraViolada.CONFLITO_HORARIO) {
+                throw e;
+            }
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            if (!isViolacaoExclusao(e)) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isViolacaoExclusao(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grava a entrada (ou devolve a que já aguarda) com a sala/dia bloqueada contra as promoções.
+     */
+    private EntradaEspera registrar(CriarReservaDTO dto) {
+        reservaRepository.bloquearDia(dto.salaId(), dto.dataReserva());
+        return entradaEsperaRepository
+                .buscarAguardando(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim(), dto.emailResponsavel())
+                .orElseGet(() -> {
+                    meterRegistry.counter("reservas.espera.entradas").increment();
+                    return entradaEsperaRepository.save(new EntradaEspera(dto.salaId(), dto.dataReserva(),
+                            dto.horaInicio(), dto.horaFim(), dto.responsavel(), dto.emailResponsavel(), dto.descricao(),
+                            dto.quantidadePessoas(), LocalDateTime.now(ZoneId.of("America/Fortaleza"))));
+                });
+    }
+
+    /**
+     * Situação atual de uma entrada da lista de espera, com a posição na fila da sala/dia.
+     * @throws RegraNegocioException se a entrada não existir
+     */
+    public EntradaEsperaDTO buscar(Long id) {
+        return entradaEsperaRepository.findById(id)
+                .map(this::paraDTO)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.ESPERA_NAO_ENCONTRADA, "Entrada da lista de espera não encontrada"));
+    }
+
+    /**
+     * Retira da fila uma entrada que ainda aguarda.
+     * @throws RegraNegocioException se a entrada não existir ou não estiver mais aguardando
+     */
+    public void sair(Long id) {
+        if (entradaEsperaRepository.sair(id, LocalDateTime.now(ZoneId.of("America/Fortaleza"))) == 0) {
+            throw new RegraNegocioException(RegraViolada.ESPERA_NAO_ENCONTRADA, "Entrada da lista de espera não encontrada ou já encerrada");
+        }
+    }
+
+    private EntradaEsperaDTO paraDTO(EntradaEspera entrada) {
+        Long posicao = entrada.getStatus() == StatusEspera.AGUARDANDO
+                ? entradaEsperaRepository.posicao(entrada.getSalaId(), entrada.getDataReserva(), entrada.getId())
+                : null;
+        return new EntradaEsperaDTO(
+                entrada.getId(),
+                entrada.getSalaId(),
+                entrada.getDataReserva(),
+                entrada.getHoraInicio(),
+                entrada.getHoraFim(),
+                entrada.getResponsavel(),
+                entrada.getEmailResponsavel(),
+                entrada.getQuantidadePessoas(),
+                entrada.getStatus(),
+                posicao,
+                entrada.getReservaId(),
+                entrada.getCriadaEm()
+        );
+    }
+}
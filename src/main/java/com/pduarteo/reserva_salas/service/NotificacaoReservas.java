@@ -0,0 +1,119 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.repository.SalaRepository;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Distribui os eventos de reserva para os assinantes de cada sala e de cada andar.
+ * Cada sala/andar tem um sink multicast: publicar é O(assinantes daquela chave), sem threads por conexão
+ * e sem espera ativa de quem publica. Um assinante lento perde eventos em vez de atrasar os demais.
+ */
+@Component
+public class NotificacaoReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoReservas.class);
+
+    @Autowired
+    private SalaCache salaCache;
+    @Autowired
+    private SalaRepository salaRepository;
+
+    private final Map<Long, Canal> porSala = new ConcurrentHashMap<>();
+    private final Map<Integer, Canal> porAndar = new ConcurrentHashMap<>();
+
+    /**
+     * Publica o evento somente após o commit da transação que alterou a reserva,
+     * para que nenhum assinante veja uma reserva desfeita por rollback.
+     * Sem transação ativa (perfil reativo), publica imediatamente.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(EventoReservaDTO evento) {
+        emitir(porSala.get(evento.reserva().salaId()), evento);
+        if (evento.andar() != null) {
+            emitir(porAndar.get(evento.andar()), evento);
+        }
+    }
+
+    /**
+     * Assina os eventos de uma sala existente.
+     * @throws RegraNegocioException (no Flux, antes de qualquer evento) se a sala não existir
+     */
+    public Flux<EventoReservaDTO> assinarSala(Long salaId) {
+        return validar(() -> salaCache.buscar(salaId).isPresent(), "Sala com ID " + salaId + " não encontrada.")
+                .thenMany(assinar(porSala, salaId));
+    }
+
+    /**
+     * Assina os eventos de um andar com ao menos uma sala.
+     * @throws RegraNegocioException (no Flux, antes de qualquer evento) se nenhuma sala estiver no andar
+     */
+    public Flux<EventoReservaDTO> assinarAndar(Integer andar) {
+        return validar(() -> salaRepository.existsByAndar(andar), "Nenhuma sala encontrada no andar " + andar + ".")
+                .thenMany(assinar(porAndar, andar));
+    }
+
+    /**
+     * O canal da chave é criado no primeiro assinante e removido quando o último cancela, de modo que
+     * o mapa só guarda chaves com conexões abertas. A contagem é alterada dentro de compute/computeIfPresent,
+     * então um assinante que chega enquanto o último sai nunca fica preso a um canal já removido.
+     */
+    private static <K> Flux<EventoReservaDTO> assinar(Map<K, Canal> canais, K chave) {
+        return Flux.defer(() -> {
+            Canal canal = canais.compute(chave, (c, atual) -> {
+                Canal assinado = atual != null ? atual : new Canal(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+                assinado.assinantes().incrementAndGet();
+                return assinado;
+            });
+            return canal.sink().asFlux()
+                    .doFinally(sinal -> canais.computeIfPresent(chave,
+                            (c, atual) -> atual.assinantes().decrementAndGet() == 0 ? null : atual));
+        });
+    }
+
+    // A consulta pode ir ao banco (cache de salas frio, contagem do andar): fora do event loop no perfil reativo
+    private static Mono<Void> validar(BooleanSupplier existe, String mensagem) {
+        return Mono.fromCallable(existe::getAsBoolean)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(encontrada -> encontrada
+                        ? Mono.empty()
+                        : Mono.error(new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, mensagem)));
+    }
+
+    /**
+     * O sink não aceita emissões simultâneas, e os eventos chegam das threads que confirmam as transações.
+     * As emissões de cada canal são serializadas no próprio canal, em vez de repetidas em espera ativa:
+     * quem publica espera no máximo a entrega de outro evento da mesma sala/andar, que não bloqueia.
+     */
+    private static void emitir(Canal canal, EventoReservaDTO evento) {
+        if (canal == null || canal.sink().currentSubscriberCount() == 0) {
+            return;
+        }
+        Sinks.EmitResult resultado;
+        synchronized (canal) {
+            resultado = canal.sink().tryEmitNext(evento);
+        }
+        // Sem assinantes (o último saiu agora) não há para quem entregar; outra falha descarta o evento
+        if (resultado.isFailure() && resultado != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.debug("Evento {} da reserva {} descartado: {}", evento.tipo(), evento.reserva().id(), resultado);
+        }
+    }
+
+    private record Canal(Sinks.Many<EventoReservaDTO> sink, AtomicInteger assinantes) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.model.Reserva;
+import com.pduarteo.reserva_salas.model.SerieReserva;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import com.pduarteo.reserva_salas.repository.SerieReservaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice em memória da ocupação das salas por dia.
+ * Como as reservas só podem ocorrer entre 08:00 e 18:00 em intervalos de 30 minutos,
+ * a ocupação de uma sala em um dia cabe em uma máscara de 20 bits (um bit por intervalo).
+ * A verificação de conflito vira um AND bit a bit; o banco continua sendo a autoridade final.
+ * As máscaras são atualizadas por compare-and-set, sem locks.
+ */
+@Component
+public class OcupacaoIndex {
+
+    static final LocalTime INICIO_EXPEDIENTE = LocalTime.of(8, 0);
+    static final int MINUTOS_POR_INTERVALO = 30;
+    static final int TOTAL_INTERVALOS = 20;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private SerieReservaRepository serieReservaRepository;
+
+    private final Map<ChaveOcupacao, AtomicInteger> ocupacao = new ConcurrentHashMap<>();
+
+    /**
+     * Carrega a ocupação das reservas e das ocorrências de séries a partir de hoje assim que a aplicação sobe.
+     * Reservas passadas não são indexadas, pois não podem mais ser criadas nem canceladas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        for (Reserva reserva : reservaRepository.findAllByDataReservaGreaterThanEqual(hoje)) {
+            marcar(reserva.getSalaId(), reserva.getDataReserva(), mascara(reserva.getHoraInicio(), reserva.getHoraFim()));
+        }
+        for (SerieReserva serie : serieReservaRepository.findAllByDataFimGreaterThanEqual(hoje)) {
+            int mascara = mascara(serie.getHoraInicio(), serie.getHoraFim());
+            serie.ocorrencias(hoje, serie.getDataFim()).forEach(data -> marcar(serie.getSalaId(), data, mascara));
+        }
+    }
+
+    /**
+     * Indica se o intervalo informado conflita com alguma reserva já indexada.
+     */
+    public boolean haConflito(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        AtomicInteger atual = ocupacao.get(new ChaveOcupacao(salaId, data));
+        return atual != null && (atual.get() & mascara(inicio, fim)) != 0;
+    }
+
+    /**
+     * Máscara atual de ocupação da sala no dia (0 se não houver reservas indexadas).
+     * Cobre apenas dias a partir de hoje, que são os indexados.
+     */
+    public int mascaraDoDia(Long salaId, LocalDate data) {
+        AtomicInteger atual = ocupacao.get(new ChaveOcupacao(salaId, data));
+        return atual == null ? 0 : atual.get();
+    }
+
+    /**
+     * Tenta reservar o intervalo no índice de forma atômica (compare-and-set na máscara da sala/dia).
+     * Requisições para a mesma sala e dia que disputam os mesmos intervalos são serializadas,
+     * enquanto salas diferentes seguem em paralelo sem bloqueio.
+     * Se a transação corrente não for confirmada, o intervalo é devolvido automaticamente.
+     * @return false se algum intervalo já estiver ocupado
+     */
+    public boolean ocupar(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        return ocupar(salaId, data, mascara(inicio, fim));
+    }
+
+    /**
+     * Variante de ocupar para uma máscara já calculada (ex.: apenas os intervalos além de um horário liberado).
+     */
+    boolean ocupar(Long salaId, LocalDate data, int mascara) {
+        AtomicInteger atual = ocupacao.computeIfAbsent(new ChaveOcupacao(salaId, data), chave -> new AtomicInteger());
+        int valor;
+        do {
+            valor = atual.get();
+            if ((valor & mascara) != 0) {
+                return false;
+            }
+        } while (!atual.compareAndSet(valor, valor | mascara));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        desmarcar(salaId, data, mascara);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Libera o intervalo quando a transação corrente for confirmada.
+     * Fora de uma transação a liberação é imediata.
+     */
+    public void liberarAposCommit(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        liberarAposCommit(salaId, data, mascara(inicio, fim));
+    }
+
+    /**
+     * Variante de liberarAposCommit para uma máscara já calculada.
+     */
+    void liberarAposCommit(Long salaId, LocalDate data, int mascara) {
+        if (mascara != 0) {
+            aposCommit(() -> desmarcar(salaId, data, mascara));
+        }
+    }
+
+    /**
+     * Descarta as máscaras de dias anteriores à data informada, que não podem mais receber reservas
+     * nem cancelamentos. Mantém o índice limitado à janela de reservas futuras.
+     * @return quantidade de entradas removidas
+     */
+    public int descartarAnterioresA(LocalDate data) {
+        int antes = ocupacao.size();
+        ocupacao.keySet().removeIf(chave -> chave.data().isBefore(data));
+        return antes - ocupacao.size();
+    }
+
+    /**
+     * Converte um intervalo de horário na máscara de bits correspondente.
+     * Horários fora da grade de 30 minutos são arredondados para fora, cobrindo todo o intervalo.
+     */
+    static int mascara(LocalTime inicio, LocalTime fim) {
+        int primeiro = Math.max(0, Math.floorDiv(minutosDesdeAbertura(inicio), MINUTOS_POR_INTERVALO));
+        int ultimo = Math.min(TOTAL_INTERVALOS, Math.ceilDiv(minutosDesdeAbertura(fim), MINUTOS_POR_INTERVALO));
+        if (ultimo <= primeiro) {
+            return 0;
+        }
+        return ((1 << (ultimo - primeiro)) - 1) << primeiro;
+    }
+
+    private static int minutosDesdeAbertura(LocalTime horario) {
+        return horario.toSecondOfDay() / 60 - INICIO_EXPEDIENTE.toSecondOfDay() / 60;
+    }
+
+    private void marcar(Long salaId, LocalDate data, int mascara) {
+        ocupacao.computeIfAbsent(new ChaveOcupacao(salaId, data), chave -> new AtomicInteger())
+                .getAndUpdate(atual -> atual | mascara);
+    }
+
+    private void desmarcar(Long salaId, LocalDate data, int mascara) {
+        AtomicInteger atual = ocupacao.get(new ChaveOcupacao(salaId, data));
+        if (atual != null) {
+            atual.getAndUpdate(valor -> valor & ~mascara);
+        }
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private record ChaveOcupacao(Long salaId, LocalDate data) {
+    }
+}
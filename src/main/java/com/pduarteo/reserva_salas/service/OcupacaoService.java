@@ -0,0 +1,177 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.OcupacaoDTO;
+import com.pduarteo.reserva_salas.dto.OcupacaoDiaSemanaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.model.OcupacaoDiaria;
+import com.pduarteo.reserva_salas.repository.OcupacaoDiariaRepository;
+import com.pduarteo.reserva_salas.repository.OcupacaoDiariaRepository.TotalPorDiaSemana;
+import com.pduarteo.reserva_salas.repository.SalaRepository;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ocupação das salas a partir do agregado diário (ocupacao_diaria).
+ * O agregado é atualizado na mesma transação de cada reserva criada ou cancelada,
+ * então os relatórios custam O(salas x dias) do período, não O(reservas).
+ */
+@Service
+public class OcupacaoService {
+
+    static final int MINUTOS_EXPEDIENTE = OcupacaoIndex.TOTAL_INTERVALOS * OcupacaoIndex.MINUTOS_POR_INTERVALO;
+    private static final int MAXIMO_DIAS = 366;
+
+    @Autowired
+    private OcupacaoDiariaRepository ocupacaoDiariaRepository;
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private SalaCache salaCache;
+
+    /**
+     * Soma as reservas aos agregados diários; deve ser chamado na transação que as cria.
+     */
+    public void adicionar(Collection<RetornoReservaDTO> reservas) {
+        registrar(reservas, 1);
+    }
+
+    /**
+     * Desconta as reservas dos agregados diários; deve ser chamado na transação que as cancela.
+     */
+    public void remover(Collection<RetornoReservaDTO> reservas) {
+        registrar(reservas, -1);
+    }
+
+    /**
+     * Ocupação de uma sala no período, total e por dia da semana.
+     * Sem período informado, usa o trimestre corrente.
+     * @throws RegraNegocioException se a sala não existir ou o período for inválido
+     */
+    @Transactional(readOnly = true)
+    public OcupacaoDTO ocupacaoDaSala(Long salaId, LocalDate de, LocalDate ate) {
+        RetornoSalaDTO sala = salaCache.buscar(salaId)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + salaId + " não encontrada."));
+        LocalDate inicio = de != null ? de : inicioDoTrimestre();
+        LocalDate fim = ate != null ? ate : inicio.plusMonths(3).minusDays(1);
+        validarPeriodo(inicio, fim);
+
+        return resumir(salaId, sala.andar(), inicio, fim, diasUteis(inicio, fim), 1,
+                ocupacaoDiariaRepository.totaisPorDiaSemana(List.of(salaId), inicio, fim), null);
+    }
+
+    /**
+     * Ocupação de um andar no período, total, por dia da semana e por sala.
+     * Sem período informado, usa o trimestre corrente.
+     * @throws RegraNegocioException se o período for inválido
+     */
+    @Transactional(readOnly = true)
+    public OcupacaoDTO ocupacaoDoAndar(Integer andar, LocalDate de, LocalDate ate) {
+        LocalDate inicio = de != null ? de : inicioDoTrimestre();
+        LocalDate fim = ate != null ? ate : inicio.plusMonths(3).minusDays(1);
+        validarPeriodo(inicio, fim);
+
+        List<Long> salaIds = salaRepository.listarIdsPorAndar(andar);
+        Map<DayOfWeek, Long> diasUteis = diasUteis(inicio, fim);
+        List<TotalPorDiaSemana> totais = salaIds.isEmpty()
+                ? List.of()
+                : ocupacaoDiariaRepository.totaisPorDiaSemana(salaIds, inicio, fim);
+        Map<Long, List<TotalPorDiaSemana>> totaisPorSala = totais.stream()
+                .collect(Collectors.groupingBy(TotalPorDiaSemana::getSalaId));
+
+        List<OcupacaoDTO> porSala = salaIds.stream()
+                .sorted()
+                .map(salaId -> resumir(salaId, andar, inicio, fim, diasUteis, 1,
+                        totaisPorSala.getOrDefault(salaId, List.of()), null))
+                .toList();
+        return resumir(null, andar, inicio, fim, diasUteis, salaIds.size(), totais, porSala);
+    }
+
+    // Agrupa por sala e dia e atualiza em ordem, para que lotes concorrentes bloqueiem as linhas na mesma sequência
+    private void registrar(Collection<RetornoReservaDTO> reservas, int sinal) {
+        Map<OcupacaoDiaria.Chave, int[]> deltas = new TreeMap<>(Comparator
+                .comparing(OcupacaoDiaria.Chave::salaId)
+                .thenComparing(OcupacaoDiaria.Chave::data));
+        for (RetornoReservaDTO reserva : reservas) {
+            int[] delta = deltas.computeIfAbsent(new OcupacaoDiaria.Chave(reserva.salaId(), reserva.dataReserva()),
+                    chave -> new int[2]);
+            delta[0] += sinal * minutos(reserva.horaInicio(), reserva.horaFim());
+            delta[1] += sinal;
+        }
+        deltas.forEach((chave, delta) ->
+                ocupacaoDiariaRepository.registrar(chave.salaId(), chave.data(), delta[0], delta[1]));
+    }
+
+    static int minutos(LocalTime inicio, LocalTime fim) {
+        return (int) Duration.between(inicio, fim).toMinutes();
+    }
+
+    private static OcupacaoDTO resumir(Long salaId, Integer andar, LocalDate de, LocalDate ate,
+                                       Map<DayOfWeek, Long> diasUteis, int salas,
+                                       List<TotalPorDiaSemana> totais, List<OcupacaoDTO> porSala) {
+        Map<DayOfWeek, long[]> reservadoPorDia = new EnumMap<>(DayOfWeek.class);
+        for (TotalPorDiaSemana total : totais) {
+            long[] acumulado = reservadoPorDia.computeIfAbsent(DayOfWeek.of(total.getDiaSemana()), dia -> new long[2]);
+            acumulado[0] += total.getMinutos();
+            acumulado[1] += total.getReservas();
+        }
+
+        Map<DayOfWeek, OcupacaoDiaSemanaDTO> porDiaDaSemana = new EnumMap<>(DayOfWeek.class);
+        long disponiveis = 0;
+        long reservados = 0;
+        long reservas = 0;
+        for (Map.Entry<DayOfWeek, Long> dia : diasUteis.entrySet()) {
+            long disponiveisNoDia = dia.getValue() * MINUTOS_EXPEDIENTE * salas;
+            long[] acumulado = reservadoPorDia.getOrDefault(dia.getKey(), new long[2]);
+            porDiaDaSemana.put(dia.getKey(), new OcupacaoDiaSemanaDTO(disponiveisNoDia, acumulado[0],
+                    taxa(acumulado[0], disponiveisNoDia), acumulado[1]));
+            disponiveis += disponiveisNoDia;
+            reservados += acumulado[0];
+            reservas += acumulado[1];
+        }
+        return new OcupacaoDTO(salaId, andar, de, ate, disponiveis, reservados, taxa(reservados, disponiveis),
+                reservas, porDiaDaSemana, porSala);
+    }
+
+    private static Map<DayOfWeek, Long> diasUteis(LocalDate de, LocalDate ate) {
+        return de.datesUntil(ate.plusDays(1))
+                .map(LocalDate::getDayOfWeek)
+                .filter(dia -> dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY)
+                .collect(Collectors.groupingBy(dia -> dia, () -> new EnumMap<>(DayOfWeek.class), Collectors.counting()));
+    }
+
+    private static double taxa(long reservados, long disponiveis) {
+        return disponiveis == 0 ? 0 : Math.round(reservados * 10_000.0 / disponiveis) / 10_000.0;
+    }
+
+    private static void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (ate.isBefore(de)) {
+            throw new RegraNegocioException(RegraViolada.PERIODO_INVALIDO, "Data final deve ser maior ou igual à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS) {
+            throw new RegraNegocioException(RegraViolada.PERIODO_INVALIDO, "O período máximo do relatório é de " + MAXIMO_DIAS + " dias");
+        }
+    }
+
+    private static LocalDate inicioDoTrimestre() {
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        return hoje.withMonth(hoje.getMonth().firstMonthOfQuarter().getValue()).withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import com.pduarteo.reserva_salas.repository.EventoOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outbox transacional dos eventos de reserva.
+ * Os eventos são gravados na mesma transação da reserva (registrar) e drenados periodicamente em lotes
+ * para o PublicadorEventos configurado (drenar).
+ * Garantias: entrega ao menos uma vez (a linha só é apagada após a confirmação do destino)
+ * e ordem por sala. A identidade sozinha não basta para a ordem, pois o id é atribuído no insert e não no commit:
+ * os eventos são inseridos no fim da transação com a sala bloqueada, de modo que os ids de cada sala seguem a
+ * ordem dos commits, e um único relay ativo por vez lê por id em um único snapshot. Se uma sala falha, seus
+ * eventos seguintes esperam o próximo ciclo e o relay segue lendo os eventos das demais salas.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    // Chave dos eventos registrados na transação corrente, ainda não inseridos
+    private static final Object PENDENTES = new Object();
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+    @Autowired
+    private PublicadorEventos publicadorEventos;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reservas.outbox.tamanho-lote}")
+    private int tamanhoLote;
+
+    /**
+     * Registra o evento para o outbox; deve ser chamado dentro da transação que altera a reserva.
+     * A linha é inserida pouco antes do commit (ver gravar), na ordem em que os eventos foram registrados.
+     */
+    public void registrar(EventoReservaDTO evento) {
+        EventoOutbox linha;
+        try {
+            linha = new EventoOutbox(evento.reserva().salaId(), evento.tipo(), objectMapper.writeValueAsString(evento));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento de reserva", e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(List.of(linha));
+            return;
+        }
+        pendentesDaTransacao().add(linha);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EventoOutbox> pendentesDaTransacao() {
+        List<EventoOutbox> pendentes = (List<EventoOutbox>) TransactionSynchronizationManager.getResource(PENDENTES);
+        if (pendentes != null) {
+            return pendentes;
+        }
+        List<EventoOutbox> novos = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(PENDENTES, novos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                gravar(novos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDENTES);
+            }
+        });
+        return novos;
+    }
+
+    /**
+     * Insere os eventos com as salas bloqueadas, em ordem de id da sala para não haver deadlock entre transações
+     * com várias salas. As alterações pendentes da transação são enviadas antes: depois dos locks do outbox
+     * a transação não espera por mais nenhuma linha, só insere os eventos e confirma.
+     */
+    private void gravar(List<EventoOutbox> eventos) {
+        eventoOutboxRepository.flush();
+        eventos.stream().map(EventoOutbox::getSalaId).distinct().sorted().forEach(eventoOutboxRepository::bloquearSala);
+        eventoOutboxRepository.saveAll(eventos);
+    }
+
+    /**
+     * Publica até um lote de eventos pendentes, agrupados por sala em ordem de gravação.
+     * Salas cuja publicação falha são puladas no restante do ciclo: a leitura segue paginando por id,
+     * sem os eventos delas, até confirmar um lote inteiro ou esgotar o outbox. Assim uma sala que falha
+     * sempre não ocupa o lote das demais, e cada sala pendente é tentada no máximo uma vez por ciclo.
+     * Instâncias que não obtêm o lock do relay simplesmente pulam o ciclo.
+     * Todas as páginas vêm do mesmo snapshot (REPEATABLE READ): em READ COMMITTED uma página posterior poderia
+     * trazer um evento confirmado durante o ciclo cujo antecessor da mesma sala tem id abaixo do já lido.
+     */
+    @Scheduled(fixedDelayString = "${reservas.outbox.intervalo-ms}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void drenar() {
+        if (!eventoOutboxRepository.tentarBloquearRelay()) {
+            return;
+        }
+        Set<Long> salasComFalha = new HashSet<>();
+        long ultimoId = 0;
+        int publicados = 0;
+        List<EventoOutbox> pagina;
+        do {
+            pagina = salasComFalha.isEmpty()
+                    ? eventoOutboxRepository.findAllByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(tamanhoLote))
+                    : eventoOutboxRepository.findAllByIdGreaterThanAndSalaIdNotInOrderByIdAsc(ultimoId, salasComFalha,
+                    Limit.of(tamanhoLote));
+            if (pagina.isEmpty()) {
+                break;
+            }
+            ultimoId = pagina.get(pagina.size() - 1).getId();
+            publicados += publicar(pagina, salasComFalha);
+        } while (pagina.size() == tamanhoLote && publicados < tamanhoLote);
+
+        meterRegistry.counter("outbox.publicados").increment(publicados);
+    }
+
+    /**
+     * Publica uma página por sala e apaga os eventos confirmados; salas que falham entram em salasComFalha.
+     * @return quantidade de eventos confirmados
+     */
+    private int publicar(List<EventoOutbox> pagina, Set<Long> salasComFalha) {
+        Map<Long, List<EventoOutbox>> porSala = new LinkedHashMap<>();
+        for (EventoOutbox evento : pagina) {
+            porSala.computeIfAbsent(evento.getSalaId(), sala -> new ArrayList<>()).add(evento);
+        }
+
+        List<EventoOutbox> confirmados = new ArrayList<>();
+        porSala.forEach((salaId, eventos) -> {
+            try {
+                publicadorEventos.publicar(eventos);
+                confirmados.addAll(eventos);
+            } catch (Exception e) {
+                salasComFalha.add(salaId);
+                meterRegistry.counter("outbox.falhas").increment();
+                log.warn("Falha ao publicar {} eventos da sala {}; nova tentativa no próximo ciclo", eventos.size(), salaId, e);
+            }
+        });
+
+        eventoOutboxRepository.deleteAllInBatch(confirmados);
+        return confirmados.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos drenados do outbox (integração de calendário, notificações...).
+ * Escolhido pela propriedade reservas.outbox.destino: log (padrão), arquivo ou memoria.
+ */
+public interface PublicadorEventos {
+
+    /**
+     * Publica, em ordem, os eventos pendentes de uma mesma sala.
+     * Só deve retornar normalmente após o destino confirmar o recebimento de todos;
+     * em caso de exceção os eventos são reenviados no próximo ciclo (entrega ao menos uma vez).
+     */
+    void publicar(List<EventoOutbox> eventos) throws Exception;
+}
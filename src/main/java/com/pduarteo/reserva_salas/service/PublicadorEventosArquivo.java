@@ -0,0 +1,47 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Acrescenta os eventos, um JSON por linha, a um arquivo local.
+ * O idEvento de cada linha permite ao consumidor descartar reentregas.
+ * Cada lote é forçado para o disco antes de ser confirmado, então um evento confirmado nunca se perde.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.outbox.destino", havingValue = "arquivo")
+public class PublicadorEventosArquivo implements PublicadorEventos {
+
+    private final Path arquivo;
+
+    public PublicadorEventosArquivo(@Value("${reservas.outbox.arquivo}") Path arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    @Override
+    public void publicar(List<EventoOutbox> eventos) throws IOException {
+        StringBuilder linhas = new StringBuilder();
+        for (EventoOutbox evento : eventos) {
+            linhas.append("{\"idEvento\":").append(evento.getId())
+                    .append(",\"evento\":").append(evento.getPayload()).append("}\n");
+        }
+        try (FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        }
+    }
+}
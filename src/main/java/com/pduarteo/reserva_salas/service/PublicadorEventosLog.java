@@ -0,0 +1,26 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publica os eventos no log da aplicação; destino padrão enquanto não há integração configurada.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.outbox.destino", havingValue = "log", matchIfMissing = true)
+public class PublicadorEventosLog implements PublicadorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicadorEventosLog.class);
+
+    @Override
+    public void publicar(List<EventoOutbox> eventos) {
+        for (EventoOutbox evento : eventos) {
+            log.info("Evento de reserva {} {}: {}", evento.getId(), evento.getTipo(), evento.getPayload());
+        }
+    }
+}
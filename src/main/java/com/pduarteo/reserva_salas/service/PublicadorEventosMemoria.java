@@ -0,0 +1,28 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Guarda os eventos publicados em memória, para testes e desenvolvimento local.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.outbox.destino", havingValue = "memoria")
+public class PublicadorEventosMemoria implements PublicadorEventos {
+
+    private final ConcurrentLinkedQueue<EventoOutbox> publicados = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void publicar(List<EventoOutbox> eventos) {
+        publicados.addAll(eventos);
+    }
+
+    public List<EventoOutbox> getPublicados() {
+        return new ArrayList<>(publicados);
+    }
+}
@@ -0,0 +1,30 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+
+import java.util.function.Supplier;
+
+/**
+ * Registro das chaves de idempotência (Idempotency-Key) da criação de reservas, com validade limitada.
+ * Escolhido pela propriedade reservas.idempotencia.armazenamento: memoria (padrão) ou banco.
+ */
+public interface RegistroIdempotencia {
+
+    /**
+     * Executa a criação uma única vez por chave. Enquanto a chave for válida, repetições com a mesma
+     * requisição recebem a resposta registrada, sem executar a criação; uma repetição concorrente espera
+     * a original terminar. Se a criação falhar, a chave é liberada e a próxima repetição é processada.
+     * @param chave valor do cabeçalho Idempotency-Key
+     * @param hashRequisicao hash do corpo da requisição, para detectar a chave usada em outra requisição
+     * @param criacao criação da reserva
+     * @throws com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException se a chave já foi usada
+     *         com outra requisição ou se a original não terminou dentro do tempo de espera
+     */
+    Resultado executar(String chave, String hashRequisicao, Supplier<RetornoReservaDTO> criacao);
+
+    /**
+     * Reserva retornada e se ela veio de uma requisição anterior com a mesma chave.
+     */
+    record Resultado(RetornoReservaDTO reserva, boolean repetida) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.model.ChaveIdempotencia;
+import com.pduarteo.reserva_salas.repository.ChaveIdempotenciaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Chaves de idempotência na tabela idempotencia_reservas, compartilhadas entre instâncias.
+ * A chave é inserida na mesma transação da reserva, então chave e reserva são confirmadas (ou desfeitas) juntas;
+ * uma repetição concorrente espera no insert da chave e depois lê a resposta registrada.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.idempotencia.armazenamento", havingValue = "banco")
+public class RegistroIdempotenciaBanco implements RegistroIdempotencia {
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${reservas.idempotencia.validade}")
+    private Duration validade;
+
+    @Override
+    @Transactional
+    public Resultado executar(String chave, String hashRequisicao, Supplier<RetornoReservaDTO> criacao) {
+        // Insere a chave (ou reaproveita uma vencida); se ela já existir e estiver válida, é uma repetição
+        while (chaveIdempotenciaRepository.reservar(chave, hashRequisicao) == 0
+                && chaveIdempotenciaRepository.renovarVencida(chave, hashRequisicao, validade.toSeconds()) == 0) {
+            Optional<ChaveIdempotencia> existente = chaveIdempotenciaRepository.findById(chave);
+            if (existente.isEmpty()) {
+                continue; // removida pela limpeza entre o insert e a leitura
+            }
+            if (!existente.get().getHashRequisicao().equals(hashRequisicao)) {
+                throw RegistroIdempotenciaMemoria.chaveReutilizada();
+            }
+            if (existente.get().getResposta() == null) {
+                throw RegistroIdempotenciaMemoria.emAndamento();
+            }
+            return new Resultado(ler(existente.get().getResposta()), true);
+        }
+        RetornoReservaDTO reserva = criacao.get();
+        chaveIdempotenciaRepository.registrarResposta(chave, escrever(reserva));
+        return new Resultado(reserva, false);
+    }
+
+    /**
+     * Remove as chaves vencidas, mantendo a tabela limitada às chaves dentro da validade.
+     */
+    @Scheduled(fixedDelayString = "${reservas.idempotencia.limpeza-ms}")
+    public void removerVencidas() {
+        chaveIdempotenciaRepository.removerVencidas(validade.toSeconds());
+    }
+
+    private RetornoReservaDTO ler(String resposta) {
+        try {
+            return objectMapper.readValue(resposta, RetornoReservaDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta registrada inválida", e);
+        }
+    }
+
+    private String escrever(RetornoReservaDTO reserva) {
+        try {
+            return objectMapper.writeValueAsString(reserva);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a reserva", e);
+        }
+    }
+}
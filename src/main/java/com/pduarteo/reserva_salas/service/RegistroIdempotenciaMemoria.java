@@ -0,0 +1,90 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Chaves de idempotência em memória (Caffeine), limitadas em quantidade e com expiração após a escrita.
+ * Cada chave guarda um CompletableFuture com a resposta: repetições concorrentes esperam a original
+ * sem ocupar conexão do pool, já que a espera acontece fora de qualquer transação.
+ * As chaves não são compartilhadas entre instâncias; para isso use o armazenamento em banco.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.idempotencia.armazenamento", havingValue = "memoria", matchIfMissing = true)
+public class RegistroIdempotenciaMemoria implements RegistroIdempotencia {
+
+    private static final long ESPERA_SEGUNDOS = 30;
+
+    private final Cache<String, Registro> registros;
+
+    public RegistroIdempotenciaMemoria(@Value("${reservas.idempotencia.validade}") Duration validade,
+                                       @Value("${reservas.idempotencia.maximo-chaves}") long maximoChaves) {
+        this.registros = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterWrite(validade)
+                .build();
+    }
+
+    @Override
+    public Resultado executar(String chave, String hashRequisicao, Supplier<RetornoReservaDTO> criacao) {
+        while (true) {
+            Registro novo = new Registro(hashRequisicao, new CompletableFuture<>());
+            Registro atual = registros.asMap().putIfAbsent(chave, novo);
+            if (atual == null) {
+                return new Resultado(criar(chave, novo, criacao), false);
+            }
+            if (!atual.hashRequisicao().equals(hashRequisicao)) {
+                throw chaveReutilizada();
+            }
+            try {
+                return new Resultado(atual.resposta().get(ESPERA_SEGUNDOS, TimeUnit.SECONDS), true);
+            } catch (ExecutionException | CancellationException e) {
+                // A original falhou e liberou a chave: esta repetição tenta novamente
+            } catch (TimeoutException e) {
+                throw emAndamento();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw emAndamento();
+            }
+        }
+    }
+
+    private RetornoReservaDTO criar(String chave, Registro registro, Supplier<RetornoReservaDTO> criacao) {
+        try {
+            RetornoReservaDTO reserva = criacao.get();
+            registro.resposta().complete(reserva);
+            return reserva;
+        } catch (RuntimeException e) {
+            registros.asMap().remove(chave, registro);
+            registro.resposta().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    static RegraNegocioException chaveReutilizada() {
+        return new RegraNegocioException(RegraViolada.CHAVE_IDEMPOTENCIA_REUTILIZADA,
+                "Idempotency-Key já utilizada em outra requisição");
+    }
+
+    static RegraNegocioException emAndamento() {
+        return new RegraNegocioException(RegraViolada.CHAVE_IDEMPOTENCIA_EM_USO,
+                "A requisição original com esta Idempotency-Key ainda está em processamento");
+    }
+
+    private record Registro(String hashRequisicao, CompletableFuture<RetornoReservaDTO> resposta) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Cache de leitura das reservas por id (Caffeine, mesma especificação do cache de salas).
+ * Guarda snapshots imutáveis com a versão da reserva, de modo que GET /api/reservas/{id} com
+ * If-None-Match responde 304 sem acessar o banco enquanto a reserva estiver no cache.
+ * Diferente do cache de salas, a ausência não é guardada: ids novos vêm da sequência e seriam
+ * escondidos por um "não encontrada" anterior.
+ */
+@Component
+public class ReservaCache {
+
+    public static final String RESERVAS = "reservas";
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Cacheable(cacheNames = RESERVAS, key = "#id", unless = "#result == null")
+    public Optional<RetornoReservaDTO> buscar(Long id) {
+        return reservaRepository.buscarRetornoPorId(id);
+    }
+
+    /**
+     * Remove a reserva do cache ao receber o evento de cancelamento, publicado pelos dois perfis.
+     * Com transação ativa o evento só chega após o commit: antes dele, leituras concorrentes ainda veem
+     * a reserva como estava. O cache é local à instância; as demais dependem da expiração.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoCancelar(EventoReservaDTO evento) {
+        if (evento.tipo() == TipoEventoReserva.CANCELADA && evento.reserva().id() != null) {
+            cacheManager.getCache(RESERVAS).evict(evento.reserva().id());
+        }
+    }
+
+    /**
+     * Esvazia o cache; usado depois do arquivamento, que remove reservas em massa da tabela quente.
+     */
+    @CacheEvict(cacheNames = RESERVAS, allEntries = true)
+    public void invalidarTodas() {
+    }
+}
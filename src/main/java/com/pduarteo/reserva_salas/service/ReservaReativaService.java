@@ -0,0 +1,362 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.Frequencia;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+import com.pduarteo.reserva_salas.model.SerieReserva;
+import com.pduarteo.reserva_salas.repository.EventoOutboxRepository;
+import com.pduarteo.reserva_salas.repository.OcupacaoDiariaRepository;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import com.pduarteo.reserva_salas.support.Cursor;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Variante reativa (R2DBC) do ReservaService, ativa no perfil "reativo".
+ * A criação grava a reserva e o evento do outbox na mesma transação R2DBC; o cancelamento, que promove
+ * a lista de espera, usa o caminho bloqueante de ReservaService.
+ * As regras de negócio não são reimplementadas: data/hora, capacidade, ocorrências de séries
+ * e o índice de ocupação são os mesmos do serviço bloqueante, e a constraint de exclusão
+ * do banco continua sendo a autoridade final contra sobreposição.
+ */
+@Service
+@Profile("reativo")
+public class ReservaReativaService {
+
+    private static final String COLUNAS = """
+            id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel, descricao, quantidade_pessoas, versao
+            """;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private SalaReativaService salaReativaService;
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ReservaService reservaService;
+
+    /**
+     * Cria uma nova reserva de sala com as mesmas validações de ReservaService#criarReserva.
+     * Se a inserção falhar ou o cliente cancelar a requisição, o intervalo reservado no índice de ocupação
+     * é devolvido; um conflito acusado
+     * só pelo índice (bit desatualizado) é conferido no banco antes de recusar a reserva.
+     * @param dto DTO com os dados da reserva
+     * @return RetornoReservaDTO com os dados da reserva criada
+     */
+    public Mono<RetornoReservaDTO> criarReserva(CriarReservaDTO dto) {
+        return salaReativaService.buscarSala(dto.salaId())
+                .filter(sala -> Boolean.TRUE.equals(sala.ativa()))
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException(RegraViolada.SALA_INDISPONIVEL, "Sala não encontrada ou inativa")))
+                .flatMap(sala -> {
+                    ReservaService.validarDataHora(dto);
+                    ReservaService.validarCapacidade(dto, sala.capacidade());
+                    // Um conflito acusado pelo índice (local à instância) só recusa a reserva se o banco o confirmar
+                    boolean ocupou = ocupacaoIndex.ocupar(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim());
+                    Runnable devolver = () -> {
+                        if (ocupou) {
+                            ocupacaoIndex.liberarAposCommit(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim());
+                        }
+                    };
+                    // As consultas rodam na transação, com a sala/dia bloqueada como em ReservaService#criarReserva
+                    return bloquearDia(dto.salaId(), dto.dataReserva())
+                            .then(ocupou
+                                    ? Mono.just(false)
+                                    : existeSobreposicao(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim()))
+                            .flatMap(conflito -> conflito
+                                    ? Mono.just(true)
+                                    : seriesConflitantes(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim())
+                                            .any(serie -> serie.ocorreEm(dto.dataReserva())))
+                            .flatMap(conflito -> conflito
+                                    ? Mono.<EventoReservaDTO>error(new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, ReservaService.MENSAGEM_CONFLITO))
+                                    : inserir(dto)
+                                            .map(reserva -> new EventoReservaDTO(TipoEventoReserva.CRIADA, sala.andar(), reserva))
+                                            .flatMap(evento -> registrarOcupacao(evento).then(registrarNoOutbox(evento)).thenReturn(evento)))
+                            .as(transactionalOperator::transactional)
+                            // Cliente desconectado no meio da criação: o operador desfaz a transação no cancelamento,
+                            // então o intervalo volta ao índice como em uma falha
+                            .doOnError(erro -> devolver.run())
+                            .doOnCancel(devolver)
+                            .doOnNext(eventPublisher::publishEvent)
+                            .map(EventoReservaDTO::reserva);
+                });
+    }
+
+    /**
+     * Cancela uma reserva futura pelo mesmo caminho de ReservaService#cancelarReserva, em uma thread
+     * de boundedElastic: o cancelamento repassa o horário à lista de espera, e a promoção (fila bloqueada,
+     * reservas criadas, índice e outbox na mesma transação) não é reimplementada sobre R2DBC.
+     * @param id identificador da reserva
+     * @return RetornoReservaDTO com os dados da reserva cancelada
+     */
+    public Mono<RetornoReservaDTO> cancelarReserva(Long id) {
+        return Mono.fromCallable(() -> reservaService.cancelarReserva(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Lista as reservas de forma paginada, ordenadas por id.
+     */
+    public Mono<Page<RetornoReservaDTO>> listarReservas(int pagina, int tamanho) {
+        Mono<List<RetornoReservaDTO>> conteudo = databaseClient
+                .sql("SELECT " + COLUNAS + " FROM reservas WHERE status = 'ATIVA' ORDER BY id LIMIT :limite OFFSET :deslocamento")
+                .bind("limite", tamanho)
+                .bind("deslocamento", (long) pagina * tamanho)
+                .map(ReservaReativaService::paraDTO)
+                .all().collectList();
+        Mono<Long> total = databaseClient.sql("SELECT count(*) FROM reservas WHERE status = 'ATIVA'")
+                .map(linha -> linha.get(0, Long.class))
+                .one();
+        return Mono.zip(conteudo, total)
+                .map(resultado -> new PageImpl<>(resultado.getT1(), PageRequest.of(pagina, tamanho), resultado.getT2()));
+    }
+
+    /**
+     * Lista reservas com paginação por cursor (keyset), ordenadas por id.
+     */
+    public Mono<PaginaCursorDTO<RetornoReservaDTO>> listarReservasPorCursor(String cursor, int limite) {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM reservas WHERE status = 'ATIVA' AND id > :depois ORDER BY id LIMIT :limite")
+                .bind("depois", Cursor.decodificar(cursor))
+                .bind("limite", limite + 1)
+                .map(ReservaReativaService::paraDTO)
+                .all().collectList()
+                .map(linhas -> {
+                    List<RetornoReservaDTO> conteudo = linhas.subList(0, Math.min(limite, linhas.size()));
+                    String proximo = linhas.size() > limite ? Cursor.codificar(conteudo.get(conteudo.size() - 1).id()) : null;
+                    return new PaginaCursorDTO<>(conteudo, proximo);
+                });
+    }
+
+    /**
+     * Busca uma reserva pelo seu identificador único.
+     */
+    public Mono<RetornoReservaDTO> buscarReservaPorId(Long id) {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM reservas WHERE status = 'ATIVA' AND id = :id")
+                .bind("id", id)
+                .map(ReservaReativaService::paraDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException(RegraViolada.RESERVA_NAO_ENCONTRADA, "Reserva não encontrada")));
+    }
+
+    /**
+     * Lista as reservas de uma sala, incluindo as ocorrências de séries, com a mesma janela padrão
+     * de ReservaService#listarReservasPorSalaId.
+     */
+    public Mono<List<RetornoReservaDTO>> listarReservasPorSalaId(Long salaId, LocalDate de, LocalDate ate) {
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        LocalDate inicioJanela = de != null ? de : hoje;
+        LocalDate fimJanela = ate != null ? ate : hoje.plusDays(90);
+
+        Flux<RetornoReservaDTO> reservas = databaseClient.sql("SELECT " + COLUNAS + """
+                         FROM reservas
+                        WHERE status = 'ATIVA' AND sala_id = :salaId AND data_reserva BETWEEN :de AND :ate
+                        """)
+                .bind("salaId", salaId)
+                .bind("de", inicioJanela)
+                .bind("ate", fimJanela)
+                .map(ReservaReativaService::paraDTO).all();
+        Flux<RetornoReservaDTO> ocorrencias = series(salaId, inicioJanela, fimJanela, LocalTime.MIN, LocalTime.MAX)
+                .flatMapIterable(serie -> serie.ocorrencias(inicioJanela, fimJanela)
+                        .map(data -> ReservaService.paraDTO(serie, data))
+                        .toList());
+
+        return Flux.concat(reservas, ocorrencias)
+                .collectSortedList(Comparator.comparing(RetornoReservaDTO::dataReserva).thenComparing(RetornoReservaDTO::horaInicio));
+    }
+
+    /**
+     * Exporta reservas filtradas como um fluxo, lido do banco conforme a demanda do cliente.
+     */
+    public Flux<RetornoReservaDTO> exportarReservas(Long salaId, String email, LocalDate de, LocalDate ate) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUNAS + " FROM reservas WHERE status = 'ATIVA'");
+        if (salaId != null) {
+            sql.append(" AND sala_id = :salaId");
+        }
+        if (email != null) {
+            sql.append(" AND email_responsavel = :email");
+        }
+        if (de != null) {
+            sql.append(" AND data_reserva >= :de");
+        }
+        if (ate != null) {
+            sql.append(" AND data_reserva <= :ate");
+        }
+        DatabaseClient.GenericExecuteSpec consulta = databaseClient.sql(sql.append(" ORDER BY id").toString());
+        if (salaId != null) {
+            consulta = consulta.bind("salaId", salaId);
+        }
+        if (email != null) {
+            consulta = consulta.bind("email", email);
+        }
+        if (de != null) {
+            consulta = consulta.bind("de", de);
+        }
+        if (ate != null) {
+            consulta = consulta.bind("ate", ate);
+        }
+        return consulta.map(ReservaReativaService::paraDTO).all();
+    }
+
+    // O id vem direto de reservas_seq: cada valor da sequência é o topo de um bloco do otimizador
+    // pooled do Hibernate, portanto nunca coincide com ids alocados pelo serviço bloqueante
+    private Mono<RetornoReservaDTO> inserir(CriarReservaDTO dto) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("""
+                        INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel,
+                                              email_responsavel, descricao, quantidade_pessoas)
+                        VALUES (nextval('reservas_seq'), :salaId, :data, :inicio, :fim, :responsavel,
+                                :email, :descricao, :pessoas)
+                        RETURNING\s""" + COLUNAS)
+                .bind("salaId", dto.salaId())
+                .bind("data", dto.dataReserva())
+                .bind("inicio", dto.horaInicio())
+                .bind("fim", dto.horaFim())
+                .bind("responsavel", dto.responsavel())
+                .bind("email", dto.emailResponsavel());
+        insert = dto.descricao() != null ? insert.bind("descricao", dto.descricao()) : insert.bindNull("descricao", String.class);
+        insert = dto.quantidadePessoas() != null ? insert.bind("pessoas", dto.quantidadePessoas()) : insert.bindNull("pessoas", Integer.class);
+        return insert.map(ReservaReativaService::paraDTO).one();
+    }
+
+    /**
+     * Atualiza o agregado diário de ocupação (mesmo upsert do OcupacaoService); deve compor a mesma transação.
+     */
+    private Mono<Void> registrarOcupacao(EventoReservaDTO evento) {
+        RetornoReservaDTO reserva = evento.reserva();
+        int sinal = evento.tipo() == TipoEventoReserva.CRIADA ? 1 : -1;
+        return databaseClient.sql(OcupacaoDiariaRepository.UPSERT)
+                .bind("salaId", reserva.salaId())
+                .bind("data", reserva.dataReserva())
+                .bind("minutos", sinal * OcupacaoService.minutos(reserva.horaInicio(), reserva.horaFim()))
+                .bind("reservas", sinal)
+                .then();
+    }
+
+    /**
+     * Grava o evento no outbox com a sala bloqueada, como OutboxRelay#registrar; deve ser o último comando
+     * da transação da alteração da reserva, para que os ids de cada sala sigam a ordem dos commits.
+     */
+    private Mono<Void> registrarNoOutbox(EventoReservaDTO evento) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(evento))
+                .flatMap(payload -> databaseClient.sql(EventoOutboxRepository.BLOQUEAR_SALA)
+                        .bind("salaId", evento.reserva().salaId())
+                        .fetch().one()
+                        .then(databaseClient
+                                .sql("INSERT INTO outbox_reservas (sala_id, tipo, payload) VALUES (:salaId, :tipo, CAST(:payload AS jsonb))")
+                                .bind("salaId", evento.reserva().salaId())
+                                .bind("tipo", evento.tipo().name())
+                                .bind("payload", payload)
+                                .then()));
+    }
+
+    /**
+     * Lock consultivo da sala/dia (o mesmo de ReservaRepository#bloquearDia); deve compor a transação que ele protege.
+     */
+    private Mono<Void> bloquearDia(Long salaId, LocalDate data) {
+        return databaseClient.sql(ReservaRepository.BLOQUEAR_DIA)
+                .bind("salaId", salaId)
+                .bind("data", data)
+                .fetch().one()
+                .then();
+    }
+
+    private Mono<Boolean> existeSobreposicao(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        return databaseClient.sql("""
+                        SELECT EXISTS (SELECT 1 FROM reservas
+                                       WHERE status = 'ATIVA' AND sala_id = :salaId AND data_reserva = :data
+                                         AND hora_inicio < :fim AND hora_fim > :inicio)
+                        """)
+                .bind("salaId", salaId)
+                .bind("data", data)
+                .bind("inicio", inicio)
+                .bind("fim", fim)
+                .map(linha -> linha.get(0, Boolean.class))
+                .one();
+    }
+
+    private Flux<SerieReserva> seriesConflitantes(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        return series(salaId, data, data, inicio, fim);
+    }
+
+    /**
+     * Séries da sala que cobrem [de, ate] e cujo horário se sobrepõe a [inicio, fim), já com as exceções,
+     * convertidas em SerieReserva para reaproveitar ocorreEm/ocorrencias.
+     */
+    private Flux<SerieReserva> series(Long salaId, LocalDate de, LocalDate ate, LocalTime inicio, LocalTime fim) {
+        return databaseClient.sql("""
+                        SELECT s.*, coalesce(array_agg(e.data) FILTER (WHERE e.data IS NOT NULL), '{}') AS excecoes
+                        FROM series_reserva s
+                        LEFT JOIN series_reserva_excecoes e ON e.serie_id = s.id
+                        WHERE s.sala_id = :salaId
+                          AND s.data_inicio <= :ate AND s.data_fim >= :de
+                          AND s.hora_inicio < :fim AND s.hora_fim > :inicio
+                        GROUP BY s.id
+                        """)
+                .bind("salaId", salaId)
+                .bind("de", de)
+                .bind("ate", ate)
+                .bind("inicio", inicio)
+                .bind("fim", fim)
+                .map(linha -> {
+                    SerieReserva serie = new SerieReserva();
+                    serie.setId(linha.get("id", Long.class));
+                    serie.setSalaId(linha.get("sala_id", Long.class));
+                    serie.setFrequencia(Frequencia.valueOf(linha.get("frequencia", String.class)));
+                    serie.setDataInicio(linha.get("data_inicio", LocalDate.class));
+                    serie.setDataFim(linha.get("data_fim", LocalDate.class));
+                    serie.setHoraInicio(linha.get("hora_inicio", LocalTime.class));
+                    serie.setHoraFim(linha.get("hora_fim", LocalTime.class));
+                    serie.setResponsavel(linha.get("responsavel", String.class));
+                    serie.setEmailResponsavel(linha.get("email_responsavel", String.class));
+                    serie.setDescricao(linha.get("descricao", String.class));
+                    serie.setQuantidadePessoas(linha.get("quantidade_pessoas", Integer.class));
+                    serie.setExcecoes(Set.of(linha.get("excecoes", LocalDate[].class)));
+                    return serie;
+                })
+                .all();
+    }
+
+    private static RetornoReservaDTO paraDTO(Readable linha) {
+        return new RetornoReservaDTO(
+                linha.get("id", Long.class),
+                linha.get("sala_id", Long.class),
+                linha.get("data_reserva", LocalDate.class),
+                linha.get("hora_inicio", LocalTime.class),
+                linha.get("hora_fim", LocalTime.class),
+                linha.get("responsavel", String.class),
+                linha.get("email_responsavel", String.class),
+                linha.get("descricao", String.class),
+                linha.get("quantidade_pessoas", Integer.class),
+                linha.get("versao", Long.class)
+        );
+    }
+}
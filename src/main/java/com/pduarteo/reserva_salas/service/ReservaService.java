@@ -1,37 +1,99 @@
 package com.pduarteo.reserva_salas.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.EventoReservaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.ResultadoLoteReservaDTO;
 import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+import com.pduarteo.reserva_salas.model.EntradaEspera;
 import com.pduarteo.reserva_salas.model.Reserva;
 import com.pduarteo.reserva_salas.model.Sala;
+import com.pduarteo.reserva_salas.model.SerieReserva;
+import com.pduarteo.reserva_salas.repository.EntradaEsperaRepository;
+import com.pduarteo.reserva_salas.repository.ReservaLoteRepository;
 import com.pduarteo.reserva_salas.repository.ReservaRepository;
 import com.pduarteo.reserva_salas.repository.SalaRepository;
+import com.pduarteo.reserva_salas.repository.SerieReservaRepository;
+import com.pduarteo.reserva_salas.support.Cursor;
+import com.pduarteo.reserva_salas.support.Metricas;
 import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável pela lógica de negócio das reservas de salas.
  * Realiza validações essenciais antes de criar ou cancelar reservas, garantindo regras de negócio e integridade dos dados.
  */
 @Service
+@Timed(value = "reservas.servico", histogram = true)
 public class ReservaService {
 
+    public static final String MENSAGEM_CONFLITO = "Conflito de horário: já existe reserva nesse intervalo";
+
+    // Timers por fase (tag "fase"), para separar busca da sala, regras, conflito e escrita no banco
+    private static final String CRIAR = "reservas.criar";
+    private static final String CANCELAR = "reservas.cancelar";
+
     @Autowired
     private ReservaRepository reservaRepository;
     @Autowired
+    private ReservaLoteRepository reservaLoteRepository;
+    @Autowired
     private SalaRepository salaRepository;
+    @Autowired
+    private SerieReservaRepository serieReservaRepository;
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex;
+    @Autowired
+    private SalaCache salaCache;
+    @Autowired
+    private ReservaCache reservaCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Metricas metricas;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OcupacaoService ocupacaoService;
+    @Autowired
+    private EntradaEsperaRepository entradaEsperaRepository;
 
     /**
      * Cria uma nova reserva de sala.
@@ -44,154 +106,325 @@ public class ReservaService {
     @Transactional
     public RetornoReservaDTO criarReserva(CriarReservaDTO dto) {
         // Busca a sala e valida se está ativa
-        Sala sala = salaRepository.findById(dto.salaId())
-                .filter(Sala::getAtiva)
-                .orElseThrow(() -> new RegraNegocioException("Sala não encontrada ou inativa"));
+        RetornoSalaDTO sala = metricas.fase(CRIAR, "sala").record(() -> salaCache.buscar(dto.salaId())
+                .filter(RetornoSalaDTO::ativa)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_INDISPONIVEL, "Sala não encontrada ou inativa")));
 
-        // Valida regras de data e hora da reserva
-        validarDataHora(dto);
+        metricas.fase(CRIAR, "validacao").record(() -> {
+            // Valida regras de data e hora da reserva
+            validarDataHora(dto);
 
-        // Valida se a quantidade de pessoas não excede a capacidade da sala
-        if (dto.quantidadePessoas() != null && dto.quantidadePessoas() > sala.getCapacidade()) {
-            throw new RegraNegocioException("Quantidade de pessoas excede a capacidade da sala");
-        }
+            // Valida se a quantidade de pessoas não excede a capacidade da sala
+            validarCapacidade(dto, sala.capacidade());
+        });
 
-        // Verifica se existe conflito de horário com outra reserva
-        boolean conflito = reservaRepository
-                .existsBySalaIdAndDataReservaAndHoraInicioLessThanAndHoraFimGreaterThan(
-                        dto.salaId(),
-                        dto.dataReserva(),
-                        dto.horaFim(),
-                        dto.horaInicio()
-                );
-
-        if (conflito) {
-            throw new RegraNegocioException("Conflito de horário: já existe reserva nesse intervalo");
-        }
+        metricas.fase(CRIAR, "conflito").record(() -> {
+            // Com a sala/dia bloqueada, as consultas abaixo enxergam as reservas e séries gravadas
+            // por transações concorrentes, inclusive as séries, que a constraint de exclusão não cobre
+            reservaRepository.bloquearDia(dto.salaId(), dto.dataReserva());
+
+            // Reserva o intervalo no índice em memória (atômico por sala/dia), com o banco confirmando
+            // um conflito acusado pelo índice; a constraint de exclusão barra qualquer sobreposição restante no insert
+            if (!ocuparOuConfirmarNoBanco(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim())) {
+                throw new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, MENSAGEM_CONFLITO);
+            }
+
+            // Ocorrências de séries recorrentes não estão na tabela de reservas, então são conferidas à parte
+            if (conflitaComSerie(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim())) {
+                throw new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, MENSAGEM_CONFLITO);
+            }
+        });
 
         // Cria e salva a reserva
-        Reserva reserva = new Reserva();
-        reserva.setSalaId(dto.salaId());
-        reserva.setDataReserva(dto.dataReserva());
-        reserva.setHoraInicio(dto.horaInicio());
-        reserva.setHoraFim(dto.horaFim());
-        reserva.setResponsavel(dto.responsavel());
-        reserva.setEmailResponsavel(dto.emailResponsavel());
-        reserva.setDescricao(dto.descricao());
-        reserva.setQuantidadePessoas(dto.quantidadePessoas());
+        Reserva saved = metricas.fase(CRIAR, "insercao").record(() -> reservaRepository.saveAndFlush(novaReserva(dto)));
 
-        Reserva saved = reservaRepository.save(reserva);
+        // Atualiza o agregado de ocupação, registra o evento no outbox e notifica os assinantes após o commit
+        RetornoReservaDTO retorno = paraDTO(saved);
+        ocupacaoService.adicionar(List.of(retorno));
+        notificar(new EventoReservaDTO(TipoEventoReserva.CRIADA, sala.andar(), retorno));
+        return retorno;
+    }
 
-        // Retorna o DTO da reserva criada
-        return new RetornoReservaDTO(
-                saved.getId(),
-                saved.getSalaId(),
-                saved.getDataReserva(),
-                saved.getHoraInicio(),
-                saved.getHoraFim(),
-                saved.getResponsavel(),
-                saved.getEmailResponsavel(),
-                saved.getDescricao(),
-                saved.getQuantidadePessoas()
-        );
+    /**
+     * Cria várias reservas em uma única transação.
+     * Cada item passa pelas mesmas validações de criarReserva; os conflitos são resolvidos em memória,
+     * entre os próprios itens do lote e contra as reservas já existentes (carregadas em uma única consulta).
+     * Os itens válidos são inseridos em batch JDBC; os inválidos são reportados sem abortar o lote,
+     * inclusive os recusados pelo banco por uma reserva concorrente gravada depois das verificações.
+     * @param dtos lista de reservas a serem criadas
+     * @return resultado de cada item, na mesma ordem da entrada
+     */
+    @Transactional
+    public List<ResultadoLoteReservaDTO> criarReservasEmLote(List<CriarReservaDTO> dtos) {
+        Set<Long> salaIds = dtos.stream().map(CriarReservaDTO::salaId).collect(Collectors.toSet());
+        Set<LocalDate> datas = dtos.stream().map(CriarReservaDTO::dataReserva).collect(Collectors.toSet());
+
+        Map<Long, Sala> salas = salaRepository.findAllById(salaIds).stream()
+                .collect(Collectors.toMap(Sala::getId, Function.identity()));
+
+        // Bloqueia as salas/dias do lote em ordem, como os demais caminhos que bloqueiam vários dias
+        dtos.stream()
+                .map(dto -> new ChaveDia(dto.salaId(), dto.dataReserva()))
+                .distinct()
+                .sorted(Comparator.comparing(ChaveDia::salaId).thenComparing(ChaveDia::data))
+                .forEach(chave -> reservaRepository.bloquearDia(chave.salaId(), chave.data()));
+
+        // Ocupação atual das salas/dias envolvidos: uma consulta para reservas e outra para séries
+        Map<ChaveDia, Integer> ocupacao = new HashMap<>();
+        for (Reserva existente : reservaRepository.findAllBySalaIdInAndDataReservaIn(salaIds, datas)) {
+            ocupacao.merge(new ChaveDia(existente.getSalaId(), existente.getDataReserva()),
+                    OcupacaoIndex.mascara(existente.getHoraInicio(), existente.getHoraFim()),
+                    (atual, nova) -> atual | nova);
+        }
+        if (!datas.isEmpty()) {
+            LocalDate primeiraData = Collections.min(datas);
+            LocalDate ultimaData = Collections.max(datas);
+            for (SerieReserva serie : serieReservaRepository
+                    .findAllBySalaIdInAndDataInicioLessThanEqualAndDataFimGreaterThanEqual(salaIds, ultimaData, primeiraData)) {
+                int mascara = OcupacaoIndex.mascara(serie.getHoraInicio(), serie.getHoraFim());
+                datas.stream().filter(serie::ocorreEm).forEach(data ->
+                        ocupacao.merge(new ChaveDia(serie.getSalaId(), data), mascara, (atual, nova) -> atual | nova));
+            }
+        }
+
+        ResultadoLoteReservaDTO[] resultados = new ResultadoLoteReservaDTO[dtos.size()];
+        List<CriarReservaDTO> novas = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CriarReservaDTO dto = dtos.get(i);
+            try {
+                Sala sala = Optional.ofNullable(salas.get(dto.salaId()))
+                        .filter(Sala::getAtiva)
+                        .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_INDISPONIVEL, "Sala não encontrada ou inativa"));
+                validarDataHora(dto);
+                validarCapacidade(dto, sala.getCapacidade());
+
+                ChaveDia chave = new ChaveDia(dto.salaId(), dto.dataReserva());
+                int mascara = OcupacaoIndex.mascara(dto.horaInicio(), dto.horaFim());
+                if ((ocupacao.getOrDefault(chave, 0) & mascara) != 0
+                        || !ocuparOuConfirmarNoBanco(dto.salaId(), dto.dataReserva(), dto.horaInicio(), dto.horaFim())) {
+                    throw new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, MENSAGEM_CONFLITO);
+                }
+                ocupacao.merge(chave, mascara, (atual, nova) -> atual | nova);
+
+                novas.add(dto);
+                indices.add(i);
+            } catch (RegraNegocioException e) {
+                metricas.registrarRejeicao(e.getRegra());
+                resultados[i] = new ResultadoLoteReservaDTO(i, false, null, e.getMessage());
+            }
+        }
+
+        // Um item que outra transação ocupou depois das verificações acima é recusado pela constraint de exclusão
+        // e falha sozinho; os bits do índice continuam marcados, pois o horário está de fato ocupado no banco
+        List<RetornoReservaDTO> gravadas = reservaLoteRepository.inserir(novas);
+        List<RetornoReservaDTO> criadas = new ArrayList<>(gravadas.size());
+        for (int j = 0; j < gravadas.size(); j++) {
+            int indice = indices.get(j);
+            RetornoReservaDTO retorno = gravadas.get(j);
+            if (retorno == null) {
+                metricas.registrarRejeicao(RegraViolada.CONFLITO_HORARIO);
+                resultados[indice] = new ResultadoLoteReservaDTO(indice, false, null, MENSAGEM_CONFLITO);
+                continue;
+            }
+            resultados[indice] = new ResultadoLoteReservaDTO(indice, true, retorno, null);
+            criadas.add(retorno);
+            notificar(new EventoReservaDTO(TipoEventoReserva.CRIADA, salas.get(retorno.salaId()).getAndar(), retorno));
+        }
+        ocupacaoService.adicionar(criadas);
+        return List.of(resultados);
     }
 
     // Cancelar somente se futura
     /**
      * Cancela uma reserva existente, desde que seja futura.
      * Valida se a reserva existe e se o horário de início ainda não passou.
+     * A reserva não é excluída: passa ao status CANCELADA e deixa de aparecer nas consultas.
      * @param id identificador da reserva
      * @return RetornoReservaDTO com os dados da reserva cancelada
      * @throws RegraNegocioException se a reserva não existir ou já tiver iniciado
      */
     @Transactional
     public RetornoReservaDTO cancelarReserva(Long id) {
-        Reserva reserva = reservaRepository.findById(id)
-                .orElseThrow(() -> new RegraNegocioException("Reserva não encontrada"));
+        Reserva reserva = metricas.fase(CANCELAR, "busca").record(() -> reservaRepository.findById(id)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.RESERVA_NAO_ENCONTRADA, "Reserva não encontrada")));
 
         // Verifica se a reserva é futura
+        LocalDateTime agora = LocalDateTime.now(ZoneId.of("America/Fortaleza"));
         LocalDateTime inicio = LocalDateTime.of(reserva.getDataReserva(), reserva.getHoraInicio());
-        if (inicio.isBefore(LocalDateTime.now(ZoneId.of("America/Fortaleza")))) {
-            throw new RegraNegocioException("Reservas passadas não podem ser canceladas");
+        if (inicio.isBefore(agora)) {
+            throw new RegraNegocioException(RegraViolada.CANCELAMENTO_PASSADO, "Reservas passadas não podem ser canceladas");
         }
 
-        RetornoReservaDTO retorno = new RetornoReservaDTO(
-                reserva.getId(),
-                reserva.getSalaId(),
-                reserva.getDataReserva(),
-                reserva.getHoraInicio(),
-                reserva.getHoraFim(),
-                reserva.getResponsavel(),
-                reserva.getEmailResponsavel(),
-                reserva.getDescricao(),
-                reserva.getQuantidadePessoas()
-        );
-        reservaRepository.delete(reserva);
+        RetornoReservaDTO retorno = paraDTO(reserva);
+        // Cancelamento lógico: a linha fica registrada e deixa de ocupar o horário.
+        // A sala/dia é bloqueada antes da alteração, e não só na promoção: uma criação que já tem o lock
+        // esperaria pela linha alterada na constraint de exclusão, e este cancelamento, pelo lock dela
+        metricas.fase(CANCELAR, "atualizacao").record(() -> {
+            reservaRepository.bloquearDia(reserva.getSalaId(), reserva.getDataReserva());
+            reserva.cancelar(agora);
+            reservaRepository.flush();
+        });
+        ocupacaoService.remover(List.of(retorno));
+        Integer andar = salaCache.buscar(reserva.getSalaId()).map(RetornoSalaDTO::andar).orElse(null);
+        notificar(new EventoReservaDTO(TipoEventoReserva.CANCELADA, andar, retorno));
+
+        metricas.fase(CANCELAR, "promocao").record(() -> repassarHorarioLiberado(
+                reserva.getSalaId(), reserva.getDataReserva(), reserva.getHoraInicio(), reserva.getHoraFim()));
         return retorno;
     }
 
+    /**
+     * Repassa à lista de espera um horário liberado (reserva cancelada ou ocorrência de série removida)
+     * e libera no índice, após o commit, apenas o que não foi repassado: os intervalos das reservas promovidas
+     * continuam ocupados, sem janela para outra requisição tomá-los.
+     * Deve ser chamado na transação que liberou o horário, depois de a liberação estar visível para as consultas.
+     * @return reservas criadas a partir da lista de espera
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RetornoReservaDTO> repassarHorarioLiberado(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        LocalDateTime agora = LocalDateTime.now(ZoneId.of("America/Fortaleza"));
+        Optional<RetornoSalaDTO> sala = salaCache.buscar(salaId);
+        Integer andar = sala.map(RetornoSalaDTO::andar).orElse(null);
+
+        List<RetornoReservaDTO> promovidas = promoverEspera(salaId, data, inicio, fim,
+                sala.filter(RetornoSalaDTO::ativa).orElse(null), agora);
+        int repassada = 0;
+        for (RetornoReservaDTO promovida : promovidas) {
+            repassada |= OcupacaoIndex.mascara(promovida.horaInicio(), promovida.horaFim());
+            notificar(new EventoReservaDTO(TipoEventoReserva.CRIADA, andar, promovida));
+        }
+        ocupacaoService.adicionar(promovidas);
+        ocupacaoIndex.liberarAposCommit(salaId, data, OcupacaoIndex.mascara(inicio, fim) & ~repassada);
+        return promovidas;
+    }
+
+    /**
+     * Converte em reservas, por ordem de chegada, as entradas da lista de espera que cabem no horário
+     * liberado [inicio, fim). Uma entrada é pulada se exceder a capacidade, se disputar um intervalo já
+     * repassado a outra entrada ou se pedir intervalos além do liberado que não estejam livres;
+     * entradas cujo horário já começou são expiradas.
+     * A sala/dia e as entradas candidatas ficam bloqueadas até o fim da transação, então cancelamentos
+     * concorrentes não promovem a mesma entrada duas vezes e uma entrada não é gravada entre a leitura e o commit.
+     * @param sala sala do horário (nula se não existir mais ou estiver inativa, caso em que ninguém é promovido)
+     * @return reservas criadas
+     */
+    private List<RetornoReservaDTO> promoverEspera(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim,
+                                                   RetornoSalaDTO sala, LocalDateTime agora) {
+        if (sala == null) {
+            return List.of();
+        }
+        reservaRepository.bloquearDia(salaId, data);
+        List<EntradaEspera> candidatas = entradaEsperaRepository.bloquearAguardando(salaId, data, inicio, fim);
+        if (candidatas.isEmpty()) {
+            return List.of();
+        }
+
+        int liberada = OcupacaoIndex.mascara(inicio, fim);
+        int disponivel = liberada;
+        List<RetornoReservaDTO> promovidas = new ArrayList<>();
+        for (EntradaEspera entrada : candidatas) {
+            if (LocalDateTime.of(data, entrada.getHoraInicio()).isBefore(agora)) {
+                entrada.expirar(agora);
+                continue;
+            }
+            if (entrada.getQuantidadePessoas() != null && entrada.getQuantidadePessoas() > sala.capacidade()) {
+                continue;
+            }
+            int mascara = OcupacaoIndex.mascara(entrada.getHoraInicio(), entrada.getHoraFim());
+            if ((mascara & liberada & ~disponivel) != 0) {
+                continue;
+            }
+            // Intervalos fora do horário liberado precisam estar livres nas séries e no banco. O banco decide nos
+            // dois sentidos: uma sobreposição criada por outra instância não pode derrubar o cancelamento no insert,
+            // e um bit desatualizado no índice não pode segurar a entrada na fila
+            int alem = mascara & ~liberada;
+            if (alem != 0) {
+                if (conflitaComSerie(salaId, data, entrada.getHoraInicio(), entrada.getHoraFim())) {
+                    continue;
+                }
+                boolean ocupou = ocupacaoIndex.ocupar(salaId, data, alem);
+                if (reservaRepository.existeSobreposicao(salaId, data, entrada.getHoraInicio(), entrada.getHoraFim())) {
+                    if (ocupou) {
+                        ocupacaoIndex.liberarAposCommit(salaId, data, alem);
+                    }
+                    continue;
+                }
+            }
+
+            Reserva saved = reservaRepository.saveAndFlush(new Reserva(null, salaId, data, entrada.getHoraInicio(),
+                    entrada.getHoraFim(), entrada.getResponsavel(), entrada.getEmailResponsavel(),
+                    entrada.getDescricao(), entrada.getQuantidadePessoas()));
+            entrada.promover(saved.getId(), agora);
+            disponivel &= ~mascara;
+            promovidas.add(paraDTO(saved));
+        }
+        metricas.registrarPromocoes(promovidas.size());
+        return promovidas;
+    }
+
     /**
      * Lista todas as reservas de forma paginada.
      * Utiliza o Pageable para retornar uma página de reservas convertidas para o DTO de retorno.
      * @param pageable informações de paginação (página, tamanho, ordenação)
      * @return página de reservas no formato RetornoReservaDTO
      */
+    @Transactional(readOnly = true)
     public Page<RetornoReservaDTO> listarReservas(Pageable pageable) {
-        return reservaRepository.findAll(pageable).map(reserva -> new RetornoReservaDTO(
-                reserva.getId(),
-                reserva.getSalaId(),
-                reserva.getDataReserva(),
-                reserva.getHoraInicio(),
-                reserva.getHoraFim(),
-                reserva.getResponsavel(),
-                reserva.getEmailResponsavel(),
-                reserva.getDescricao(),
-                reserva.getQuantidadePessoas()
-        ));
+        return reservaRepository.listarRetornos(pageable);
+    }
+
+    /**
+     * Lista reservas com paginação por cursor (keyset), ordenadas por id.
+     * Não executa count e o custo de cada página independe da sua posição.
+     * @param cursor cursor opaco retornado pela página anterior (nulo na primeira página)
+     * @param limite quantidade máxima de itens da página
+     * @return página de reservas com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<RetornoReservaDTO> listarReservasPorCursor(String cursor, int limite) {
+        Slice<RetornoReservaDTO> pagina = reservaRepository.listarRetornosAposId(Cursor.decodificar(cursor),
+                PageRequest.of(0, limite, Sort.by("id")));
+        List<RetornoReservaDTO> conteudo = pagina.getContent();
+        String proximo = pagina.hasNext() ? Cursor.codificar(conteudo.get(conteudo.size() - 1).id()) : null;
+        return new PaginaCursorDTO<>(conteudo, proximo);
     }
 
     /**
-     * Busca uma reserva pelo seu identificador único.
+     * Busca uma reserva pelo seu identificador único, a partir do cache de reservas.
      * Retorna o DTO correspondente ou lança exceção se não encontrada.
      * @param id identificador da reserva
      * @return RetornoReservaDTO com os dados da reserva
      * @throws RegraNegocioException se a reserva não existir
      */
     public RetornoReservaDTO buscarReservaPorId(Long id) {
-        Reserva reserva = reservaRepository.findById(id)
-                .orElseThrow(() -> new RegraNegocioException("Reserva não encontrada"));
-        return new RetornoReservaDTO(
-                reserva.getId(),
-                reserva.getSalaId(),
-                reserva.getDataReserva(),
-                reserva.getHoraInicio(),
-                reserva.getHoraFim(),
-                reserva.getResponsavel(),
-                reserva.getEmailResponsavel(),
-                reserva.getDescricao(),
-                reserva.getQuantidadePessoas()
-        );
+        return reservaCache.buscar(id)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.RESERVA_NAO_ENCONTRADA, "Reserva não encontrada"));
     }
 
     /**
-     * Lista todas as reservas de uma sala específica.
-     * Retorna uma lista de DTOs de reservas associadas ao id da sala.
+     * Lista as reservas de uma sala específica, incluindo as ocorrências de séries recorrentes.
+     * Sem janela informada, retorna as reservas avulsas e as ocorrências de séries dentro do
+     * horizonte de 90 dias a partir de hoje; com janela, ambas são restritas a [de, ate].
      * @param salaId identificador da sala
-     * @return lista de reservas no formato RetornoReservaDTO
+     * @param de início da janela (opcional)
+     * @param ate fim da janela (opcional)
+     * @return lista de reservas no formato RetornoReservaDTO, ordenada por data e horário
      */
-    public List<RetornoReservaDTO> listarReservasPorSalaId(Long salaId) {
-        List<Reserva> reservas = reservaRepository.findAllBySalaId(salaId);
-        return reservas.stream().map(reserva -> new RetornoReservaDTO(
-                reserva.getId(),
-                reserva.getSalaId(),
-                reserva.getDataReserva(),
-                reserva.getHoraInicio(),
-                reserva.getHoraFim(),
-                reserva.getResponsavel(),
-                reserva.getEmailResponsavel(),
-                reserva.getDescricao(),
-                reserva.getQuantidadePessoas()
-        )).toList();
+    @Transactional(readOnly = true)
+    public List<RetornoReservaDTO> listarReservasPorSalaId(Long salaId, LocalDate de, LocalDate ate) {
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        LocalDate inicioJanela = de != null ? de : hoje;
+        LocalDate fimJanela = ate != null ? ate : hoje.plusDays(90);
+
+        List<RetornoReservaDTO> retorno = new ArrayList<>(
+                reservaRepository.listarRetornosPorSala(salaId, inicioJanela, fimJanela));
+        for (SerieReserva serie : serieReservaRepository
+                .findAllBySalaIdAndDataInicioLessThanEqualAndDataFimGreaterThanEqual(salaId, fimJanela, inicioJanela)) {
+            serie.ocorrencias(inicioJanela, fimJanela).forEach(data -> retorno.add(paraDTO(serie, data)));
+        }
+        retorno.sort(Comparator.comparing(RetornoReservaDTO::dataReserva).thenComparing(RetornoReservaDTO::horaInicio));
+        return retorno;
     }
 
     /**
@@ -200,9 +433,79 @@ public class ReservaService {
      * @param email email do responsável pela reserva
      * @return lista de reservas no formato RetornoReservaDTO
      */
+    @Transactional(readOnly = true)
     public List<RetornoReservaDTO> listarReservasPorEmailResponsavel(String email) {
-        List<Reserva> reservas = reservaRepository.findAllByEmailResponsavel(email);
-        return reservas.stream().map(reserva -> new RetornoReservaDTO(
+        return reservaRepository.listarRetornosPorEmail(email);
+    }
+
+    static RetornoReservaDTO paraDTO(SerieReserva serie, LocalDate data) {
+        return new RetornoReservaDTO(
+                null,
+                serie.getSalaId(),
+                data,
+                serie.getHoraInicio(),
+                serie.getHoraFim(),
+                serie.getResponsavel(),
+                serie.getEmailResponsavel(),
+                serie.getDescricao(),
+                serie.getQuantidadePessoas(),
+                serie.getId(),
+                null
+        );
+    }
+
+    /**
+     * Exporta reservas em NDJSON (um JSON por linha) diretamente para a saída informada.
+     * As reservas são lidas por cursor JDBC e projetadas direto no DTO, sem passar pelo
+     * contexto de persistência, mantendo o uso de memória constante independente do volume.
+     * @param salaId filtro por sala (opcional)
+     * @param email filtro por email do responsável (opcional)
+     * @param de data inicial (opcional)
+     * @param ate data final (opcional)
+     * @param saida destino das linhas NDJSON
+     * @throws IOException se a escrita na saída falhar
+     */
+    @Transactional(readOnly = true)
+    public void exportarReservas(Long salaId, String email, LocalDate de, LocalDate ate, OutputStream saida) throws IOException {
+        try (Stream<RetornoReservaDTO> reservas = reservaRepository.streamFiltradas(salaId, email, de, ate)) {
+            Iterator<RetornoReservaDTO> iterator = reservas.iterator();
+            int escritas = 0;
+            while (iterator.hasNext()) {
+                saida.write(objectMapper.writeValueAsBytes(iterator.next()));
+                saida.write('\n');
+                if (++escritas % 500 == 0) {
+                    saida.flush();
+                }
+            }
+        }
+        saida.flush();
+    }
+
+    /**
+     * Valida se a quantidade de pessoas não excede a capacidade da sala.
+     * @throws RegraNegocioException se a capacidade for excedida
+     */
+    static void validarCapacidade(CriarReservaDTO dto, Integer capacidade) {
+        if (dto.quantidadePessoas() != null && dto.quantidadePessoas() > capacidade) {
+            throw new RegraNegocioException(RegraViolada.CAPACIDADE_EXCEDIDA, "Quantidade de pessoas excede a capacidade da sala");
+        }
+    }
+
+    private static Reserva novaReserva(CriarReservaDTO dto) {
+        Reserva reserva = new Reserva();
+        reserva.setSalaId(dto.salaId());
+        reserva.setDataReserva(dto.dataReserva());
+        reserva.setHoraInicio(dto.horaInicio());
+        reserva.setHoraFim(dto.horaFim());
+        reserva.setResponsavel(dto.responsavel());
+        reserva.setEmailResponsavel(dto.emailResponsavel());
+        reserva.setDescricao(dto.descricao());
+        reserva.setQuantidadePessoas(dto.quantidadePessoas());
+        return reserva;
+    }
+
+    static RetornoReservaDTO paraDTO(Reserva reserva) {
+        return new RetornoReservaDTO(
                 reserva.getId(),
                 reserva.getSalaId(),
                 reserva.getDataReserva(),
@@ -211,8 +514,9 @@ public class ReservaService {
                 reserva.getResponsavel(),
                 reserva.getEmailResponsavel(),
                 reserva.getDescricao(),
-                reserva.getQuantidadePessoas()
-        )).toList();
+                reserva.getQuantidadePessoas(),
+                reserva.getVersao()
+        );
     }
 
     /**
@@ -222,52 +526,86 @@ public class ReservaService {
      * @param dto DTO com os dados da reserva
      * @throws RegraNegocioException em caso de violação das regras
      */
-    private void validarDataHora(CriarReservaDTO dto) {
-        LocalDate data = dto.dataReserva();
-        LocalTime inicio = dto.horaInicio();
-        LocalTime fim = dto.horaFim();
+    static void validarDataHora(CriarReservaDTO dto) {
+        validarDataHora(dto.dataReserva(), dto.horaInicio(), dto.horaFim());
+    }
 
+    /**
+     * Mesmas regras de data e hora para um intervalo avulso (ex.: a busca de salas livres).
+     * @throws RegraNegocioException em caso de violação das regras
+     */
+    static void validarDataHora(LocalDate data, LocalTime inicio, LocalTime fim) {
         LocalDateTime agora = LocalDateTime.now(ZoneId.of("America/Fortaleza"));
 
         // não pode passado
         if (data.isBefore(LocalDate.now()) ||
                 (data.isEqual(LocalDate.now()) && fim.isBefore(agora.toLocalTime()))) {
-            throw new RegraNegocioException("Não é permitido reservar em datas passadas");
+            throw new RegraNegocioException(RegraViolada.DATA_PASSADA, "Não é permitido reservar em datas passadas");
         }
 
         // fim > inicio
         if (!fim.isAfter(inicio)) {
-            throw new RegraNegocioException("Hora fim deve ser maior que hora início");
+            throw new RegraNegocioException(RegraViolada.HORARIO_INVALIDO, "Hora fim deve ser maior que hora início");
         }
 
         // max 90 dias
         if (data.isAfter(LocalDate.now().plusDays(90))) {
-            throw new RegraNegocioException("Não é permitido reservar com mais de 90 dias de antecedência");
+            throw new RegraNegocioException(RegraViolada.ANTECEDENCIA_MAXIMA, "Não é permitido reservar com mais de 90 dias de antecedência");
         }
 
         // segunda a sexta
         DayOfWeek dow = data.getDayOfWeek();
         if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
-            throw new RegraNegocioException("Reservas só podem ser feitas de segunda a sexta");
+            throw new RegraNegocioException(RegraViolada.FIM_DE_SEMANA, "Reservas só podem ser feitas de segunda a sexta");
         }
 
         // dentro de 08:00–18:00
         if (inicio.isBefore(LocalTime.of(8, 0)) || fim.isAfter(LocalTime.of(18, 0))) {
-            throw new RegraNegocioException("Horário permitido apenas entre 08:00 e 18:00");
+            throw new RegraNegocioException(RegraViolada.FORA_DO_EXPEDIENTE, "Horário permitido apenas entre 08:00 e 18:00");
         }
 
         // duração mínima/máxima
         Duration dur = Duration.between(inicio, fim);
         if (dur.toMinutes() < 30) {
-            throw new RegraNegocioException("Duração mínima é de 30 minutos");
+            throw new RegraNegocioException(RegraViolada.DURACAO_MINIMA, "Duração mínima é de 30 minutos");
         }
         if (dur.toHours() > 4) {
-            throw new RegraNegocioException("Duração máxima é de 4 horas");
+            throw new RegraNegocioException(RegraViolada.DURACAO_MAXIMA, "Duração máxima é de 4 horas");
         }
 
         // intervalos de 30 em 30
         if (inicio.getMinute() % 30 != 0 || fim.getMinute() % 30 != 0) {
-            throw new RegraNegocioException("Reservas só podem começar e terminar em intervalos de 30 minutos");
+            throw new RegraNegocioException(RegraViolada.FORA_DA_GRADE, "Reservas só podem começar e terminar em intervalos de 30 minutos");
+        }
+    }
+
+    /**
+     * Ocupa o intervalo no índice. O índice é local à instância e pode ter bits desatualizados
+     * (cancelamento em outra instância ou no perfil reativo, uma liberação perdida), então um conflito acusado
+     * por ele só recusa a reserva se o banco, a autoridade final, também tiver uma reserva sobreposta.
+     * @return true se a reserva pode seguir para o insert
+     */
+    private boolean ocuparOuConfirmarNoBanco(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        if (ocupacaoIndex.ocupar(salaId, data, inicio, fim)) {
+            return true;
+        }
+        boolean livre = !reservaRepository.existeSobreposicao(salaId, data, inicio, fim);
+        if (livre) {
+            metricas.registrarDivergenciaIndice();
         }
+        return livre;
+    }
+
+    private boolean conflitaComSerie(Long salaId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        return serieReservaRepository.findConflitantes(salaId, data, data, inicio, fim).stream()
+                .anyMatch(serie -> serie.ocorreEm(data));
+    }
+
+    private void notificar(EventoReservaDTO evento) {
+        outboxRelay.registrar(evento);
+        eventPublisher.publishEvent(evento);
+    }
+
+    private record ChaveDia(Long salaId, LocalDate data) {
     }
 }
@@ -0,0 +1,68 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.repository.SalaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Cache de leitura das salas (Caffeine, limitado e com estatísticas exportadas como métricas).
+ * Guarda snapshots imutáveis (RetornoSalaDTO), inclusive a ausência da sala, e é invalidado
+ * pelo SalaService após o commit de cada escrita.
+ */
+@Component
+public class SalaCache {
+
+    public static final String SALAS = "salas";
+
+    @Autowired
+    private SalaRepository salaRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Busca o snapshot da sala, carregando do banco apenas em caso de cache miss.
+     * Carregamentos concorrentes da mesma sala são feitos uma única vez e têm a latência
+     * registrada no timer cache.salas.carregamento.
+     */
+    @Cacheable(cacheNames = SALAS, key = "#id", sync = true)
+    public Optional<RetornoSalaDTO> buscar(Long id) {
+        return meterRegistry.timer("cache.salas.carregamento").record(() -> salaRepository.buscarRetornoPorId(id));
+    }
+
+    /**
+     * Remove a sala do cache; a próxima leitura recarrega do banco.
+     * Para escritas sem transação (perfil reativo, comando único já confirmado).
+     */
+    @CacheEvict(cacheNames = SALAS, key = "#id")
+    public void invalidar(Long id) {
+    }
+
+    /**
+     * Remove a sala do cache quando a transação corrente for confirmada (ou imediatamente, fora de transação).
+     * Removida antes do commit, uma leitura concorrente recarregaria o estado antigo e o deixaria no cache.
+     */
+    public void invalidarAposCommit(Long id) {
+        Runnable remover = () -> cacheManager.getCache(SALAS).evict(id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remover.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remover.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.Recurso;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.repository.SalaRepository;
+import com.pduarteo.reserva_salas.support.Cursor;
+import com.pduarteo.reserva_salas.support.converters.RecursosConverter;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Variante reativa (R2DBC) do SalaService, ativa no perfil "reativo".
+ * As escritas invalidam o mesmo cache de salas usado pelo serviço bloqueante.
+ */
+@Service
+@Profile("reativo")
+public class SalaReativaService {
+
+    private static final RecursosConverter RECURSOS = new RecursosConverter();
+
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex;
+    @Autowired
+    private SalaCache salaCache;
+
+    /**
+     * Cria uma nova sala após validar se já existe uma sala com o mesmo nome e andar.
+     */
+    public Mono<RetornoSalaDTO> criarSala(CriarSalaDTO dadosSala) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM salas WHERE lower(nome) = lower(:nome) AND andar = :andar)")
+                .bind("nome", dadosSala.nome())
+                .bind("andar", dadosSala.andar())
+                .map(linha -> linha.get(0, Boolean.class))
+                .one()
+                .flatMap(existe -> existe
+                        ? Mono.error(new RegraNegocioException(RegraViolada.SALA_DUPLICADA, "Já existe uma sala com esse nome nesse andar."))
+                        : databaseClient.sql("""
+                                        INSERT INTO salas (nome, capacidade, andar, recursos, ativa)
+                                        VALUES (:nome, :capacidade, :andar, :recursos, true)
+                                        RETURNING *
+                                        """)
+                                .bind("nome", dadosSala.nome())
+                                .bind("capacidade", dadosSala.capacidade())
+                                .bind("andar", dadosSala.andar())
+                                .bind("recursos", RecursosConverter.mascara(dadosSala.recursos()))
+                                .map(SalaReativaService::paraDTO)
+                                .one())
+                .doOnNext(sala -> salaCache.invalidar(sala.id()));
+    }
+
+    /**
+     * Busca uma sala pelo ID.
+     * @throws RegraNegocioException (no Mono) se a sala não for encontrada
+     */
+    public Mono<RetornoSalaDTO> buscarSalaPorId(Long id) {
+        return buscarSala(id)
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada.")));
+    }
+
+    /**
+     * Lista as salas de forma paginada, ordenadas por id.
+     */
+    public Mono<Page<RetornoSalaDTO>> listarSalas(int pagina, int tamanho) {
+        Mono<List<RetornoSalaDTO>> conteudo = databaseClient.sql("SELECT * FROM salas ORDER BY id LIMIT :limite OFFSET :deslocamento")
+                .bind("limite", tamanho)
+                .bind("deslocamento", (long) pagina * tamanho)
+                .map(SalaReativaService::paraDTO)
+                .all().collectList();
+        Mono<Long> total = databaseClient.sql("SELECT count(*) FROM salas")
+                .map(linha -> linha.get(0, Long.class))
+                .one();
+        return Mono.zip(conteudo, total)
+                .map(resultado -> new PageImpl<>(resultado.getT1(), PageRequest.of(pagina, tamanho), resultado.getT2()));
+    }
+
+    /**
+     * Lista salas com paginação por cursor (keyset), ordenadas por id, sem consulta de count.
+     */
+    public Mono<PaginaCursorDTO<RetornoSalaDTO>> listarSalasPorCursor(String cursor, int limite) {
+        return databaseClient.sql("SELECT * FROM salas WHERE id > :depois ORDER BY id LIMIT :limite")
+                .bind("depois", Cursor.decodificar(cursor))
+                .bind("limite", limite + 1)
+                .map(SalaReativaService::paraDTO)
+                .all().collectList()
+                .map(linhas -> {
+                    List<RetornoSalaDTO> conteudo = linhas.subList(0, Math.min(limite, linhas.size()));
+                    String proximo = linhas.size() > limite ? Cursor.codificar(conteudo.get(conteudo.size() - 1).id()) : null;
+                    return new PaginaCursorDTO<>(conteudo, proximo);
+                });
+    }
+
+    /**
+     * Busca as salas ativas livres em um intervalo, com a mesma consulta por máscara de recursos,
+     * o mesmo índice de ocupação e a mesma confirmação no banco de SalaService#buscarSalasDisponiveis.
+     */
+    public Mono<List<RetornoSalaDTO>> buscarSalasDisponiveis(LocalDate data, LocalTime inicio, LocalTime fim,
+                                                             Integer capacidade, Set<Recurso> recursos) {
+        return Mono.fromRunnable(() -> SalaService.validarIntervalo(data, inicio, fim)).then(databaseClient.sql("""
+                        SELECT * FROM salas
+                        WHERE ativa AND capacidade >= :capacidade AND (recursos & :recursos) = :recursos
+                        ORDER BY id
+                        """)
+                .bind("capacidade", capacidade == null ? 1 : capacidade)
+                .bind("recursos", RecursosConverter.mascara(recursos))
+                .map(SalaReativaService::paraDTO)
+                .all()
+                .filter(sala -> !ocupacaoIndex.haConflito(sala.id(), data, inicio, fim))
+                .collectList()
+                .flatMap(candidatas -> candidatas.isEmpty()
+                        ? Mono.just(candidatas)
+                        : databaseClient.sql(SalaRepository.OCUPADAS_NO_INTERVALO)
+                                .bind("salaIds", candidatas.stream().map(RetornoSalaDTO::id).toList())
+                                .bind("data", data)
+                                .bind("inicio", inicio)
+                                .bind("fim", fim)
+                                .map(linha -> linha.get(0, Long.class))
+                                .all().collect(Collectors.toSet())
+                                .map(ocupadas -> candidatas.stream().filter(sala -> !ocupadas.contains(sala.id())).toList())));
+    }
+
+    /**
+     * Atualiza os dados de uma sala existente.
+     */
+    public Mono<RetornoSalaDTO> atualizarSala(Long id, CriarSalaDTO sala) {
+        return databaseClient.sql("""
+                        UPDATE salas SET nome = :nome, capacidade = :capacidade, andar = :andar, recursos = :recursos,
+                                         versao = versao + 1
+                        WHERE id = :id
+                        RETURNING *
+                        """)
+                .bind("id", id)
+                .bind("nome", sala.nome())
+                .bind("capacidade", sala.capacidade())
+                .bind("andar", sala.andar())
+                .bind("recursos", RecursosConverter.mascara(sala.recursos()))
+                .map(SalaReativaService::paraDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada.")))
+                .doOnNext(atualizada -> salaCache.invalidar(id));
+    }
+
+    /**
+     * Remove uma sala e retorna os dados da sala removida.
+     */
+    public Mono<RetornoSalaDTO> deletarSala(Long id) {
+        return databaseClient.sql("DELETE FROM salas WHERE id = :id RETURNING *")
+                .bind("id", id)
+                .map(SalaReativaService::paraDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada.")))
+                .doOnNext(removida -> salaCache.invalidar(id));
+    }
+
+    /**
+     * Busca a sala direto no banco, sem bloquear; vazio se não existir.
+     */
+    Mono<RetornoSalaDTO> buscarSala(Long id) {
+        return databaseClient.sql("SELECT * FROM salas WHERE id = :id")
+                .bind("id", id)
+                .map(SalaReativaService::paraDTO)
+                .one();
+    }
+
+    private static RetornoSalaDTO paraDTO(Readable linha) {
+        return new RetornoSalaDTO(
+                linha.get("id", Long.class),
+                linha.get("nome", String.class),
+                linha.get("capacidade", Integer.class),
+                linha.get("andar", Integer.class),
+                RECURSOS.convertToEntityAttribute(linha.get("recursos", Integer.class)),
+                linha.get("ativa", Boolean.class),
+                linha.get("versao", Long.class)
+        );
+    }
+}
@@ -1,26 +1,46 @@
 package com.pduarteo.reserva_salas.service;
 
 import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
 import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.enums.Recurso;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
 import com.pduarteo.reserva_salas.model.Sala;
 import com.pduarteo.reserva_salas.repository.SalaRepository;
+import com.pduarteo.reserva_salas.support.Cursor;
+import com.pduarteo.reserva_salas.support.converters.RecursosConverter;
+import com.pduarteo.reserva_salas.support.exceptions.ParametroInvalidoException;
 import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Serviço responsável pela lógica de negócio relacionada à entidade Sala.
  * Realiza operações de CRUD e validações específicas antes de persistir ou alterar dados.
  */
 @Service
+@Timed(value = "salas.servico", histogram = true)
 public class SalaService {
 
     @Autowired
     private SalaRepository salaRepository; // Repositório para acesso ao banco de dados de salas
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex; // Índice em memória da ocupação das salas por dia
+    @Autowired
+    private SalaCache salaCache; // Cache de leitura das salas, invalidado a cada escrita
 
     /**
      * Cria uma nova sala após validar se já existe uma sala com o mesmo nome e andar.
@@ -28,9 +48,10 @@ public class SalaService {
      * @return RetornoSalaDTO com os dados da sala criada
      * @throws RegraNegocioException se já existir sala com mesmo nome e andar
      */
+    @Transactional
     public RetornoSalaDTO criarSala(CriarSalaDTO dadosSala){
         if(salaRepository.existsByNomeIgnoreCaseAndAndar(dadosSala.nome(), dadosSala.andar())){
-            throw new RegraNegocioException("Já existe uma sala com esse nome nesse andar.");
+            throw new RegraNegocioException(RegraViolada.SALA_DUPLICADA, "Já existe uma sala com esse nome nesse andar.");
         }
         Sala sala = new Sala();
         sala.setNome(dadosSala.nome());
@@ -38,33 +59,19 @@ public class SalaService {
         sala.setAndar(dadosSala.andar());
         sala.setRecursos(dadosSala.recursos());
         salaRepository.save(sala);
-        return new RetornoSalaDTO(
-                sala.getId(),
-                sala.getNome(),
-                sala.getCapacidade(),
-                sala.getAndar(),
-                sala.getRecursos(),
-                sala.getAtiva()
-        );
+        salaCache.invalidarAposCommit(sala.getId());
+        return paraDTO(sala);
     }
 
     /**
-     * Busca uma sala pelo ID.
+     * Busca uma sala pelo ID, a partir do cache de salas.
      * @param id identificador da sala
      * @return RetornoSalaDTO com os dados da sala encontrada
      * @throws RegraNegocioException se a sala não for encontrada
      */
     public RetornoSalaDTO buscarSalaPorId(Long id){
-        return salaRepository.findById(id)
-                .map(sala -> new RetornoSalaDTO(
-                        sala.getId(),
-                        sala.getNome(),
-                        sala.getCapacidade(),
-                        sala.getAndar(),
-                        sala.getRecursos(),
-                        sala.getAtiva()
-                ))
-                .orElseThrow(() -> new RegraNegocioException("Sala com ID " + id + " não encontrada."));
+        return salaCache.buscar(id)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada."));
     }
 
     /**
@@ -72,41 +79,85 @@ public class SalaService {
      * @param pageable informações de paginação
      * @return página de RetornoSalaDTO
      */
+    @Transactional(readOnly = true)
     public Page<RetornoSalaDTO> listarSalas(Pageable pageable) {
-        Page<Sala> salas = salaRepository.findAll(pageable);
-        return salas.map(sala -> new RetornoSalaDTO(
-                sala.getId(),
-                sala.getNome(),
-                sala.getCapacidade(),
-                sala.getAndar(),
-                sala.getRecursos(),
-                sala.getAtiva()
-        ));
+        return salaRepository.listarRetornos(pageable);
+    }
+
+    /**
+     * Lista salas com paginação por cursor (keyset), ordenadas por id, sem consulta de count.
+     * @param cursor cursor opaco retornado pela página anterior (nulo na primeira página)
+     * @param limite quantidade máxima de itens da página
+     * @return página de RetornoSalaDTO com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<RetornoSalaDTO> listarSalasPorCursor(String cursor, int limite) {
+        Slice<RetornoSalaDTO> pagina = salaRepository.listarRetornosAposId(Cursor.decodificar(cursor),
+                PageRequest.of(0, limite, Sort.by("id")));
+        List<RetornoSalaDTO> conteudo = pagina.getContent();
+        String proximo = pagina.hasNext() ? Cursor.codificar(conteudo.get(conteudo.size() - 1).id()) : null;
+        return new PaginaCursorDTO<>(conteudo, proximo);
+    }
+
+    /**
+     * Busca as salas ativas livres em um intervalo, com capacidade e recursos mínimos.
+     * Capacidade e recursos (máscara de bits) são filtrados em uma única consulta e a ocupação é pré-filtrada
+     * no índice em memória. O índice é local à instância e pode não ter as reservas gravadas por outra, então
+     * as salas que ele dá como livres são confirmadas contra reservas e séries em uma única consulta.
+     * Um bit desatualizado só pode esconder uma sala livre, nunca oferecer uma ocupada.
+     * @param data data desejada
+     * @param inicio hora de início desejada
+     * @param fim hora de fim desejada
+     * @param capacidade capacidade mínima (opcional)
+     * @param recursos recursos exigidos (opcional)
+     * @return lista de RetornoSalaDTO com as salas disponíveis
+     * @throws ParametroInvalidoException se o intervalo não puder ser reservado (mesmas regras de criarReserva)
+     */
+    @Transactional(readOnly = true)
+    public List<RetornoSalaDTO> buscarSalasDisponiveis(LocalDate data, LocalTime inicio, LocalTime fim,
+                                                       Integer capacidade, Set<Recurso> recursos) {
+        validarIntervalo(data, inicio, fim);
+        List<Sala> candidatas = salaRepository.findAtivasComCapacidadeERecursos(capacidade == null ? 1 : capacidade,
+                        RecursosConverter.mascara(recursos)).stream()
+                .filter(sala -> !ocupacaoIndex.haConflito(sala.getId(), data, inicio, fim))
+                .toList();
+        if (candidatas.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> ocupadas = salaRepository.findOcupadasNoIntervalo(
+                candidatas.stream().map(Sala::getId).toList(), data, inicio, fim);
+        return candidatas.stream()
+                .filter(sala -> !ocupadas.contains(sala.getId()))
+                .map(SalaService::paraDTO)
+                .toList();
     }
 
     /**
-     * Atualiza os dados de uma sala existente.
+     * Atualiza os dados de uma sala existente, com controle otimista de concorrência.
+     * A versão é conferida antes da alteração e novamente no UPDATE (@Version), então uma escrita
+     * concorrente entre a leitura e o flush também é rejeitada.
      * @param id identificador da sala
      * @param sala DTO com os novos dados
-     * @return RetornoSalaDTO com os dados atualizados
+     * @param versaoEsperada versão que o cliente leu (If-Match); nula para atualizar sem conferir
+     * @return RetornoSalaDTO com os dados atualizados e a nova versão
      * @throws RegraNegocioException se a sala não for encontrada
+     * @throws ObjectOptimisticLockingFailureException se a sala estiver em outra versão
      */
-    public RetornoSalaDTO atualizarSala(Long id, CriarSalaDTO sala){
+    @Transactional
+    public RetornoSalaDTO atualizarSala(Long id, CriarSalaDTO sala, Long versaoEsperada){
         Sala salaExistente = salaRepository.findById(id)
-                .orElseThrow(() -> new RegraNegocioException("Sala com ID " + id + " não encontrada."));
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada."));
+        if (versaoEsperada != null && !versaoEsperada.equals(salaExistente.getVersao())) {
+            throw new ObjectOptimisticLockingFailureException(Sala.class, id);
+        }
         salaExistente.setNome(sala.nome());
         salaExistente.setCapacidade(sala.capacidade());
         salaExistente.setAndar(sala.andar());
         salaExistente.setRecursos(sala.recursos());
-        salaRepository.save(salaExistente);
-        return new RetornoSalaDTO(
-                salaExistente.getId(),
-                salaExistente.getNome(),
-                salaExistente.getCapacidade(),
-                salaExistente.getAndar(),
-                salaExistente.getRecursos(),
-                salaExistente.getAtiva()
-        );
+        // Flush para que a versão incrementada já esteja no retorno
+        salaRepository.saveAndFlush(salaExistente);
+        salaCache.invalidarAposCommit(id);
+        return paraDTO(salaExistente);
     }
 
     /**
@@ -115,18 +166,38 @@ public class SalaService {
      * @return RetornoSalaDTO com os dados da sala removida
      * @throws RegraNegocioException se a sala não for encontrada
      */
+    @Transactional
     public RetornoSalaDTO deletarSala(Long id){
         Sala sala = salaRepository.findById(id)
-                .orElseThrow(() -> new RegraNegocioException("Sala com ID " + id + " não encontrada."));
-        RetornoSalaDTO retorno = new RetornoSalaDTO(
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_NAO_ENCONTRADA, "Sala com ID " + id + " não encontrada."));
+        RetornoSalaDTO retorno = paraDTO(sala);
+        salaRepository.delete(sala);
+        salaCache.invalidarAposCommit(id);
+        return retorno;
+    }
+
+    static RetornoSalaDTO paraDTO(Sala sala) {
+        return new RetornoSalaDTO(
                 sala.getId(),
                 sala.getNome(),
                 sala.getCapacidade(),
                 sala.getAndar(),
                 sala.getRecursos(),
-                sala.getAtiva()
+                sala.getAtiva(),
+                sala.getVersao()
         );
-        salaRepository.delete(sala);
-        return retorno;
+    }
+
+    /**
+     * Aplica à busca de salas livres as regras de data e hora de uma reserva: fora delas o índice não tem
+     * a ocupação do dia (datas passadas) ou arredondaria o intervalo para a grade de 30 minutos.
+     * @throws ParametroInvalidoException se o intervalo não puder ser reservado
+     */
+    static void validarIntervalo(LocalDate data, LocalTime inicio, LocalTime fim) {
+        try {
+            ReservaService.validarDataHora(data, inicio, fim);
+        } catch (RegraNegocioException e) {
+            throw new ParametroInvalidoException(e.getRegra(), e.getMessage());
+        }
     }
 }
@@ -0,0 +1,214 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.CriarSerieReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSerieReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.model.Reserva;
+import com.pduarteo.reserva_salas.model.SerieReserva;
+import com.pduarteo.reserva_salas.repository.ReservaRepository;
+import com.pduarteo.reserva_salas.repository.SerieReservaRepository;
+import com.pduarteo.reserva_salas.support.Metricas;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Serviço responsável pelas séries de reservas recorrentes.
+ * Uma série é gravada como uma única linha; suas ocorrências são expandidas sob demanda
+ * e validadas com as mesmas regras de uma reserva avulsa.
+ */
+@Service
+public class SerieReservaService {
+
+    @Autowired
+    private SerieReservaRepository serieReservaRepository;
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private OcupacaoIndex ocupacaoIndex;
+    @Autowired
+    private SalaCache salaCache;
+    @Autowired
+    private OcupacaoService ocupacaoService;
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private Metricas metricas;
+
+    /**
+     * Cria uma série de reservas recorrentes.
+     * Cada ocorrência passa pelas regras de data/hora de uma reserva avulsa (inclusive o limite de 90 dias)
+     * e não pode conflitar com reservas ou outras séries da mesma sala.
+     * @param dto DTO com os dados da série
+     * @return RetornoSerieReservaDTO com os dados da série criada
+     * @throws RegraNegocioException em caso de violação de regras de negócio
+     */
+    @Transactional
+    public RetornoSerieReservaDTO criarSerie(CriarSerieReservaDTO dto) {
+        RetornoSalaDTO sala = salaCache.buscar(dto.salaId())
+                .filter(RetornoSalaDTO::ativa)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SALA_INDISPONIVEL, "Sala não encontrada ou inativa"));
+
+        if (dto.dataFim().isBefore(dto.dataInicio())) {
+            throw new RegraNegocioException(RegraViolada.SERIE_INVALIDA, "Data fim da série deve ser maior ou igual à data início");
+        }
+
+        SerieReserva serie = new SerieReserva();
+        serie.setSalaId(dto.salaId());
+        serie.setFrequencia(dto.frequencia());
+        serie.setDataInicio(dto.dataInicio());
+        serie.setDataFim(dto.dataFim());
+        serie.setHoraInicio(dto.horaInicio());
+        serie.setHoraFim(dto.horaFim());
+        serie.setResponsavel(dto.responsavel());
+        serie.setEmailResponsavel(dto.emailResponsavel());
+        serie.setDescricao(dto.descricao());
+        serie.setQuantidadePessoas(dto.quantidadePessoas());
+
+        List<LocalDate> ocorrencias = serie.ocorrencias(dto.dataInicio(), dto.dataFim()).toList();
+        if (ocorrencias.isEmpty()) {
+            throw new RegraNegocioException(RegraViolada.SERIE_INVALIDA, "A série não possui ocorrências em dias úteis");
+        }
+
+        // Cada ocorrência segue as mesmas regras de uma reserva avulsa
+        for (LocalDate data : ocorrencias) {
+            CriarReservaDTO ocorrencia = new CriarReservaDTO(dto.salaId(), data, dto.horaInicio(), dto.horaFim(),
+                    dto.responsavel(), dto.emailResponsavel(), dto.descricao(), dto.quantidadePessoas());
+            ReservaService.validarDataHora(ocorrencia);
+            ReservaService.validarCapacidade(ocorrencia, sala.capacidade());
+        }
+
+        // Bloqueia os dias das ocorrências (em ordem de data) antes de procurar conflitos: a constraint de exclusão
+        // não cobre séries, então é o lock que impede uma reserva avulsa concorrente de ocupar os mesmos horários
+        ocorrencias.forEach(data -> reservaRepository.bloquearDia(dto.salaId(), data));
+
+        // Conflitos com reservas avulsas e com outras séries da sala, uma consulta para cada
+        boolean conflitoReserva = reservaRepository
+                .findAllBySalaIdAndDataReservaBetween(dto.salaId(), dto.dataInicio(), dto.dataFim()).stream()
+                .anyMatch(reserva -> serie.ocorreEm(reserva.getDataReserva()) && sobrepoe(serie, reserva));
+        boolean conflitoSerie = serieReservaRepository
+                .findConflitantes(dto.salaId(), dto.dataInicio(), dto.dataFim(), dto.horaInicio(), dto.horaFim()).stream()
+                .anyMatch(outra -> ocorrencias.stream().anyMatch(outra::ocorreEm));
+        if (conflitoReserva || conflitoSerie) {
+            throw new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, ReservaService.MENSAGEM_CONFLITO);
+        }
+
+        // O banco já confirmou, com os dias bloqueados, que os horários estão livres: um conflito acusado
+        // só pelo índice é um bit desatualizado e não recusa a série
+        for (LocalDate data : ocorrencias) {
+            if (!ocupacaoIndex.ocupar(dto.salaId(), data, dto.horaInicio(), dto.horaFim())) {
+                metricas.registrarDivergenciaIndice();
+            }
+        }
+
+        SerieReserva salva = serieReservaRepository.save(serie);
+        ocupacaoService.adicionar(ocorrencias.stream().map(data -> ReservaService.paraDTO(salva, data)).toList());
+        return paraDTO(salva);
+    }
+
+    /**
+     * Busca uma série pelo seu identificador.
+     * @param id identificador da série
+     * @return RetornoSerieReservaDTO com os dados da série
+     * @throws RegraNegocioException se a série não existir
+     */
+    @Transactional(readOnly = true)
+    public RetornoSerieReservaDTO buscarSeriePorId(Long id) {
+        return paraDTO(buscarSerie(id));
+    }
+
+    /**
+     * Remove uma única ocorrência da série, registrando a data como exceção.
+     * A alteração é O(1): nenhuma linha de ocorrência precisa ser tocada.
+     * @param id identificador da série
+     * @param data data da ocorrência a ser removida
+     * @return RetornoSerieReservaDTO com os dados atualizados
+     * @throws RegraNegocioException se a série não existir, não ocorrer na data ou a ocorrência já tiver iniciado
+     */
+    @Transactional
+    public RetornoSerieReservaDTO adicionarExcecao(Long id, LocalDate data) {
+        SerieReserva serie = buscarSerie(id);
+        if (!serie.ocorreEm(data)) {
+            throw new RegraNegocioException(RegraViolada.SERIE_INVALIDA, "A série não possui ocorrência nessa data");
+        }
+        if (LocalDateTime.of(data, serie.getHoraInicio()).isBefore(agora())) {
+            throw new RegraNegocioException(RegraViolada.CANCELAMENTO_PASSADO, "Reservas passadas não podem ser canceladas");
+        }
+        serie.getExcecoes().add(data);
+        serieReservaRepository.flush();
+        ocupacaoService.remover(List.of(ReservaService.paraDTO(serie, data)));
+        // O horário liberado passa primeiro pela lista de espera, como no cancelamento de uma reserva avulsa
+        reservaService.repassarHorarioLiberado(serie.getSalaId(), data, serie.getHoraInicio(), serie.getHoraFim());
+        return paraDTO(serie);
+    }
+
+    /**
+     * Cancela as ocorrências futuras de uma série.
+     * Se nenhuma ocorrência já tiver iniciado, a série é removida; caso contrário, é encerrada
+     * na última ocorrência iniciada, preservando o histórico.
+     * @param id identificador da série
+     * @throws RegraNegocioException se a série não existir
+     */
+    @Transactional
+    public void cancelarSerie(Long id) {
+        SerieReserva serie = buscarSerie(id);
+        LocalDateTime agora = agora();
+        LocalDate hoje = agora.toLocalDate();
+
+        // Última data cujas ocorrências não podem mais ser canceladas
+        LocalDate ultimaIniciada = serie.getHoraInicio().isAfter(agora.toLocalTime()) ? hoje.minusDays(1) : hoje;
+
+        List<LocalDate> canceladas = serie.ocorrencias(ultimaIniciada.plusDays(1), serie.getDataFim()).toList();
+        ocupacaoService.remover(canceladas.stream().map(data -> ReservaService.paraDTO(serie, data)).toList());
+
+        if (serie.getDataInicio().isAfter(ultimaIniciada)) {
+            serieReservaRepository.delete(serie);
+        } else if (serie.getDataFim().isAfter(ultimaIniciada)) {
+            serie.setDataFim(ultimaIniciada);
+        }
+        serieReservaRepository.flush();
+
+        // Cada ocorrência cancelada passa pela lista de espera, já sem a série ocupando o horário
+        canceladas.forEach(data ->
+                reservaService.repassarHorarioLiberado(serie.getSalaId(), data, serie.getHoraInicio(), serie.getHoraFim()));
+    }
+
+    private SerieReserva buscarSerie(Long id) {
+        return serieReservaRepository.findById(id)
+                .orElseThrow(() -> new RegraNegocioException(RegraViolada.SERIE_NAO_ENCONTRADA, "Série de reservas não encontrada"));
+    }
+
+    private static boolean sobrepoe(SerieReserva serie, Reserva reserva) {
+        return reserva.getHoraInicio().isBefore(serie.getHoraFim()) && reserva.getHoraFim().isAfter(serie.getHoraInicio());
+    }
+
+    private static LocalDateTime agora() {
+        return LocalDateTime.now(ZoneId.of("America/Fortaleza"));
+    }
+
+    private static RetornoSerieReservaDTO paraDTO(SerieReserva serie) {
+        return new RetornoSerieReservaDTO(
+                serie.getId(),
+                serie.getSalaId(),
+                serie.getFrequencia(),
+                serie.getDataInicio(),
+                serie.getDataFim(),
+                serie.getHoraInicio(),
+                serie.getHoraFim(),
+                serie.getResponsavel(),
+                serie.getEmailResponsavel(),
+                serie.getDescricao(),
+                serie.getQuantidadePessoas(),
+                new HashSet<>(serie.getExcecoes())
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por chave (keyset).
+ * Codifica o último id retornado em Base64 URL-safe, para que o cliente não dependa do seu formato.
+ */
+public final class Cursor {
+
+    private Cursor() {
+    }
+
+    public static String codificar(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ultimoId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o cursor recebido; nulo ou vazio indica a primeira página.
+     * @throws RegraNegocioException se o cursor for inválido
+     */
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new RegraNegocioException(RegraViolada.CURSOR_INVALIDO, "Cursor de paginação inválido");
+        }
+    }
+}
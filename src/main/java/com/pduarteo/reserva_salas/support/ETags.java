@@ -0,0 +1,62 @@
+package com.pduarteo.reserva_salas.support;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ETags das respostas e comparação com os cabeçalhos condicionais (If-None-Match e If-Match).
+ * Recursos versionados usam a própria versão da entidade como ETag forte; coleções usam um hash do conteúdo.
+ */
+public final class ETags {
+
+    /**
+     * Versão que nenhuma entidade tem (as versões começam em 0); resultado de um If-Match que não pode corresponder.
+     */
+    public static final long VERSAO_INEXISTENTE = -1L;
+
+    private ETags() {
+    }
+
+    public static String daVersao(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    public static String doConteudo(CharSequence conteudo) {
+        return "\"" + DigestUtils.md5DigestAsHex(conteudo.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Comparação fraca do If-None-Match: o prefixo W/ é ignorado e * corresponde a qualquer ETag.
+     */
+    public static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+                .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+    }
+
+    /**
+     * Versão esperada pelo If-Match, com comparação forte.
+     * @return nulo se o cabeçalho não foi enviado ou é *, a versão se for um único ETag forte de versão,
+     *         ou VERSAO_INEXISTENTE para qualquer outro valor (ETag fraco, lista ou formato desconhecido)
+     */
+    public static Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            return VERSAO_INEXISTENTE;
+        }
+        try {
+            return Long.parseLong(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            return VERSAO_INEXISTENTE;
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.pduarteo.reserva_salas.support;
 
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.service.ReservaService;
+import com.pduarteo.reserva_salas.support.exceptions.ParametroInvalidoException;
 import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.net.URI;
+import java.sql.SQLException;
 
 @RestControllerAdvice
+@Profile("!reativo")
 public class GlobalExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Autowired
+    private Metricas metricas;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ProblemDetail handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
@@ -37,12 +52,70 @@ public class GlobalExceptionHandler {
         return pd;
     }
 
+    /**
+     * Responde com 422 e contabiliza a rejeição pela regra violada.
+     */
     @ExceptionHandler(RegraNegocioException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public ProblemDetail handleCapacidadeExcedida(RegraNegocioException ex, HttpServletRequest req) {
+        metricas.registrarRejeicao(ex.getRegra());
         var pd = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
         pd.setTitle("Regra de Negócio Violada");
         pd.setType(URI.create(req.getRequestURI()));
         return pd;
     }
+
+    /**
+     * Responde com 400 para parâmetros de consulta inválidos, também contabilizando a regra violada.
+     */
+    @ExceptionHandler(ParametroInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleParametroInvalido(ParametroInvalidoException ex, HttpServletRequest req) {
+        metricas.registrarRejeicao(ex.getRegra());
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        pd.setTitle("Bad Request");
+        pd.setType(URI.create(req.getRequestURI()));
+        return pd;
+    }
+
+    /**
+     * Responde com 412 quando o If-Match não corresponde à versão atual ou quando uma escrita
+     * concorrente alterou a entidade entre a leitura e o UPDATE (@Version).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ProblemDetail handleVersaoDesatualizada(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        metricas.registrarRejeicao(RegraViolada.VERSAO_DESATUALIZADA);
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED,
+                "O recurso foi alterado por outra requisição. Busque a versão atual e tente novamente.");
+        pd.setTitle("Precondition Failed");
+        pd.setType(URI.create(req.getRequestURI()));
+        return pd;
+    }
+
+    /**
+     * Traduz a violação da constraint de exclusão de reservas (SQLState 23P01)
+     * na mesma resposta de conflito de horário gerada pela regra de negócio.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleIntegridade(DataIntegrityViolationException ex, HttpServletRequest req) {
+        if (isViolacaoExclusao(ex)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(handleCapacidadeExcedida(
+                            new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, ReservaService.MENSAGEM_CONFLITO), req));
+        }
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Violação de integridade dos dados");
+        pd.setTitle("Conflict");
+        pd.setType(URI.create(req.getRequestURI()));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(pd);
+    }
+
+    private boolean isViolacaoExclusao(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
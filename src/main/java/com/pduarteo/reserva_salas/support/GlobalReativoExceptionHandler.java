@@ -0,0 +1,96 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.service.ReservaService;
+import com.pduarteo.reserva_salas.support.exceptions.ParametroInvalidoException;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.net.URI;
+
+/**
+ * Equivalente do GlobalExceptionHandler para o perfil "reativo", com as mesmas respostas.
+ */
+@RestControllerAdvice
+@Profile("reativo")
+public class GlobalReativoExceptionHandler {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Autowired
+    private Metricas metricas;
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleValidation(WebExchangeBindException ex, ServerHttpRequest req) {
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Validation error");
+        pd.setTitle("Bad Request");
+        pd.setType(URI.create(req.getPath().value()));
+        pd.setProperty("errors", ex.getBindingResult().getFieldErrors().stream()
+                .map(fe -> fe.getField() + ": " + fe.getDefaultMessage()).toList());
+        return pd;
+    }
+
+    /**
+     * Responde com 422 e contabiliza a rejeição pela regra violada.
+     */
+    @ExceptionHandler(RegraNegocioException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ProblemDetail handleRegraNegocio(RegraNegocioException ex, ServerHttpRequest req) {
+        metricas.registrarRejeicao(ex.getRegra());
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+        pd.setTitle("Regra de Negócio Violada");
+        pd.setType(URI.create(req.getPath().value()));
+        return pd;
+    }
+
+    /**
+     * Responde com 400 para parâmetros de consulta inválidos, também contabilizando a regra violada.
+     */
+    @ExceptionHandler(ParametroInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleParametroInvalido(ParametroInvalidoException ex, ServerHttpRequest req) {
+        metricas.registrarRejeicao(ex.getRegra());
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        pd.setTitle("Bad Request");
+        pd.setType(URI.create(req.getPath().value()));
+        return pd;
+    }
+
+    /**
+     * Traduz a violação da constraint de exclusão de reservas (SQLState 23P01)
+     * na mesma resposta de conflito de horário gerada pela regra de negócio.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleIntegridade(DataIntegrityViolationException ex, ServerHttpRequest req) {
+        if (isViolacaoExclusao(ex)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(handleRegraNegocio(
+                            new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, ReservaService.MENSAGEM_CONFLITO), req));
+        }
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Violação de integridade dos dados");
+        pd.setTitle("Conflict");
+        pd.setType(URI.create(req.getPath().value()));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(pd);
+    }
+
+    private boolean isViolacaoExclusao(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof R2dbcException r2dbc && EXCLUSION_VIOLATION.equals(r2dbc.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
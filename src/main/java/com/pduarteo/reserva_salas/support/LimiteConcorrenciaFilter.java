@@ -0,0 +1,134 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead das requisições da API quando a aplicação roda em threads virtuais.
+ * Com threads virtuais não há mais o limite natural do pool do Tomcat: milhares de requisições
+ * podem disputar as poucas conexões do Hikari e ficar presas até o connection-timeout.
+ * O semáforo limita as requisições simultâneas ao tamanho do pool; quem não obtém permissão
+ * dentro da espera configurada recebe 503 com Retry-After, em vez de esperar por uma conexão.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    private static final String SUFIXO_EVENTOS = "/eventos";
+
+    private final Semaphore permissoes;
+    private final long esperaMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public LimiteConcorrenciaFilter(@Value("${reservas.concorrencia.limite}") int limite,
+                                    @Value("${reservas.concorrencia.espera-ms}") long esperaMs) {
+        this.permissoes = new Semaphore(limite, true);
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    protected void initFilterBean() {
+        Gauge.builder("concorrencia.permissoes.disponiveis", permissoes, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Os streams SSE (/eventos) ficam fora do bulkhead: duram enquanto o cliente estiver conectado e não usam
+     * conexões do pool, então segurariam permissões sem disputar o Hikari.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.endsWith(SUFIXO_EVENTOS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtida = false;
+        }
+        if (!obtida) {
+            meterRegistry.counter("concorrencia.rejeicoes").increment();
+            recusar(request, response);
+            return;
+        }
+        boolean assincrona = false;
+        try {
+            chain.doFilter(request, response);
+            assincrona = request.isAsyncStarted();
+        } finally {
+            if (assincrona) {
+                // Exportação NDJSON e respostas Mono continuam após o retorno do filtro (e a exportação segura
+                // o cursor JDBC): a permissão só é devolvida quando a resposta assíncrona termina
+                request.getAsyncContext().addListener(new DevolverPermissao());
+            } else {
+                permissoes.release();
+            }
+        }
+    }
+
+    /**
+     * Devolve a permissão ao fim da requisição assíncrona. onComplete é chamado também após erro ou timeout.
+     */
+    private final class DevolverPermissao implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permissoes.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "Servidor sobrecarregado, tente novamente em instantes");
+        pd.setTitle("Service Unavailable");
+        pd.setType(URI.create(request.getRequestURI()));
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+}
@@ -0,0 +1,54 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por chave, na forma de GCRA (generic cell rate algorithm): o estado de cada chave é um único
+ * long com o instante teórico em que o balde estará cheio de novo, atualizado por compare-and-set, sem locks.
+ * Cada requisição avança esse instante em 1/taxa; é recusada quando ele passa de agora mais a rajada permitida.
+ * As chaves ociosas por mais que o tempo de reabastecer o balde são descartadas, já que equivalem a um balde cheio.
+ */
+final class LimiteTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final Cache<String, AtomicLong> chegadas;
+
+    /**
+     * @param capacidade tamanho do balde (rajada máxima)
+     * @param porSegundo fichas repostas por segundo
+     * @param maximoChaves quantidade máxima de chaves acompanhadas
+     */
+    LimiteTaxa(int capacidade, double porSegundo, long maximoChaves) {
+        this.intervaloNanos = (long) (1_000_000_000L / porSegundo);
+        this.toleranciaNanos = intervaloNanos * (capacidade - 1);
+        this.chegadas = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterAccess(Duration.ofNanos(intervaloNanos * capacidade))
+                .build();
+    }
+
+    /**
+     * Consome uma ficha do balde da chave.
+     * @param agora instante atual em nanos (System.nanoTime())
+     * @return 0 se a requisição foi aceita, ou quantos nanos faltam para haver uma ficha
+     */
+    long consumir(String chave, long agora) {
+        AtomicLong cheio = chegadas.get(chave, c -> new AtomicLong(agora));
+        while (true) {
+            long atual = cheio.get();
+            long base = Math.max(atual, agora);
+            long espera = base - toleranciaNanos - agora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cheio.compareAndSet(atual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+}
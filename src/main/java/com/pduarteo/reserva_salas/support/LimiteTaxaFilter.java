@@ -0,0 +1,201 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de taxa por cliente nos endpoints de reservas (/api/reservas, inclusive séries), com baldes
+ * separados para leituras (GET/HEAD) e escritas. O cliente é o endereço de origem; o cabeçalho X-Client-Id
+ * só o substitui com reservas.limite-taxa.cliente-por-cabecalho=true, quando um proxy confiável define
+ * (e sobrescreve) o cabeçalho. As escritas consomem ainda um balde pelo emailResponsavel do corpo, que limita
+ * o mesmo responsável vindo de vários clientes; por ser escolhido pelo cliente, ele nunca substitui o balde do cliente.
+ * Roda antes do bulkhead e de qualquer acesso ao banco: o excesso recebe 429 com Retry-After
+ * sem ocupar conexões do pool nem permissões do LimiteConcorrenciaFilter.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private static final String CLIENTE = "X-Client-Id";
+    private static final String PREFIXO = "/api/reservas";
+    // Corpos maiores (lotes) não são lidos no filtro; só o balde do cliente é consumido
+    private static final int MAXIMO_CORPO_LIDO = 16 * 1024;
+
+    private final LimiteTaxa leituras;
+    private final LimiteTaxa escritas;
+    private final boolean clientePorCabecalho;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public LimiteTaxaFilter(@Value("${reservas.limite-taxa.leitura.capacidade}") int capacidadeLeitura,
+                            @Value("${reservas.limite-taxa.leitura.por-segundo}") double leiturasPorSegundo,
+                            @Value("${reservas.limite-taxa.escrita.capacidade}") int capacidadeEscrita,
+                            @Value("${reservas.limite-taxa.escrita.por-segundo}") double escritasPorSegundo,
+                            @Value("${reservas.limite-taxa.maximo-clientes}") long maximoClientes,
+                            @Value("${reservas.limite-taxa.cliente-por-cabecalho}") boolean clientePorCabecalho) {
+        this.leituras = new LimiteTaxa(capacidadeLeitura, leiturasPorSegundo, maximoClientes);
+        this.escritas = new LimiteTaxa(capacidadeEscrita, escritasPorSegundo, maximoClientes);
+        this.clientePorCabecalho = clientePorCabecalho;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIXO);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean leitura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        long agora = System.nanoTime();
+        long espera = (leitura ? leituras : escritas).consumir(cliente(request), agora);
+
+        HttpServletRequest requisicao = request;
+        if (espera == 0 && !leitura && corpoJsonPequeno(request)) {
+            CorpoLido corpo = new CorpoLido(request);
+            requisicao = corpo;
+            String email = emailResponsavel(corpo.bytes);
+            if (email != null) {
+                espera = escritas.consumir("email:" + email, agora);
+            }
+        }
+
+        if (espera > 0) {
+            meterRegistry.counter("limite.taxa.rejeicoes", "operacao", leitura ? "leitura" : "escrita").increment();
+            recusar(request, response, espera);
+            return;
+        }
+        chain.doFilter(requisicao, response);
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String cabecalho = clientePorCabecalho ? request.getHeader(CLIENTE) : null;
+        return cabecalho == null || cabecalho.isBlank() ? request.getRemoteAddr() : "cliente:" + cabecalho;
+    }
+
+    private static boolean corpoJsonPequeno(HttpServletRequest request) {
+        long tamanho = request.getContentLengthLong();
+        if (tamanho <= 0 || tamanho > MAXIMO_CORPO_LIDO || request.getContentType() == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private String emailResponsavel(byte[] corpo) {
+        try {
+            JsonNode email = objectMapper.readTree(corpo).get("emailResponsavel");
+            return email != null && email.isTextual() ? email.asText().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Corpo inválido: a validação do controller responde 400
+            return null;
+        }
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response, long esperaNanos) throws IOException {
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS,
+                "Limite de requisições excedido, tente novamente em instantes");
+        pd.setTitle("Too Many Requests");
+        pd.setType(URI.create(request.getRequestURI()));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Segundos inteiros, arredondados para cima
+        response.setHeader("Retry-After", String.valueOf(TimeUnit.NANOSECONDS.toSeconds(esperaNanos - 1) + 1));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+
+    /**
+     * Requisição com o corpo já lido, que o entrega de novo ao controller.
+     */
+    private static final class CorpoLido extends HttpServletRequestWrapper {
+
+        private final byte[] bytes;
+
+        CorpoLido(HttpServletRequest request) throws IOException {
+            super(request);
+            this.bytes = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(bytes);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] destino, int inicio, int tamanho) {
+                    return entrada.read(destino, inicio, tamanho);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // O corpo já está em memória: fica disponível de imediato e termina na mesma leitura
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+    }
+}
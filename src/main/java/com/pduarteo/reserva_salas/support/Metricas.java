@@ -0,0 +1,52 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de negócio das reservas, exportadas pelo endpoint /actuator/prometheus.
+ * Os timers de fase usam o nome da operação (ex.: reservas.criar) com a tag "fase";
+ * as rejeições são contadas em regras.rejeicoes com a tag "regra".
+ */
+@Component
+public class Metricas {
+
+    public static final String REJEICOES = "regras.rejeicoes";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Timer de uma fase da operação, com histograma para os percentis no Prometheus.
+     */
+    public Timer fase(String operacao, String fase) {
+        return Timer.builder(operacao)
+                .tag("fase", fase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conta uma rejeição pela regra de negócio violada.
+     */
+    public void registrarRejeicao(RegraViolada regra) {
+        meterRegistry.counter(REJEICOES, "regra", regra.name()).increment();
+    }
+
+    /**
+     * Conta os conflitos acusados pelo índice de ocupação que o banco não confirmou (bits desatualizados).
+     */
+    public void registrarDivergenciaIndice() {
+        meterRegistry.counter("ocupacao.indice.divergencias").increment();
+    }
+
+    /**
+     * Conta as entradas da lista de espera promovidas a reserva por cancelamentos.
+     */
+    public void registrarPromocoes(int quantidade) {
+        meterRegistry.counter("reservas.espera.promocoes").increment(quantidade);
+    }
+}
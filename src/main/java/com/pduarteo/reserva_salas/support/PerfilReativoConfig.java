@@ -0,0 +1,38 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * No perfil "reativo" o Spring Boot deixa de criar o DataSource JDBC quando há um ConnectionFactory R2DBC.
+ * O pool JDBC continua necessário para as migrações do Flyway e para o aquecimento do índice de ocupação,
+ * por isso é declarado aqui com as mesmas propriedades spring.datasource.*; as requisições usam apenas R2DBC.
+ */
+@Configuration
+@Profile("reativo")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class PerfilReativoConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Transações R2DBC explícitas (reserva + outbox). O gerenciador não é exposto como bean
+     * para não competir com o JpaTransactionManager usado pelos serviços bloqueantes.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
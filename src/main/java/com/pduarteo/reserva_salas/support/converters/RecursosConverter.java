@@ -0,0 +1,49 @@
+package com.pduarteo.reserva_salas.support.converters;
+
+import com.pduarteo.reserva_salas.enums.Recurso;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Persiste o conjunto de recursos de uma sala como uma máscara de bits em uma única coluna inteira.
+ * Cada recurso ocupa o bit correspondente ao seu ordinal, permitindo filtrar recursos no SQL
+ * com um AND bit a bit em vez de um join com tabela auxiliar.
+ */
+@Converter
+public class RecursosConverter implements AttributeConverter<Set<Recurso>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<Recurso> recursos) {
+        return mascara(recursos);
+    }
+
+    @Override
+    public Set<Recurso> convertToEntityAttribute(Integer mascara) {
+        EnumSet<Recurso> recursos = EnumSet.noneOf(Recurso.class);
+        if (mascara != null) {
+            for (Recurso recurso : Recurso.values()) {
+                if ((mascara & (1 << recurso.ordinal())) != 0) {
+                    recursos.add(recurso);
+                }
+            }
+        }
+        return recursos;
+    }
+
+    /**
+     * Calcula a máscara de bits de um conjunto de recursos; nulo equivale a nenhum recurso.
+     */
+    public static int mascara(Collection<Recurso> recursos) {
+        int mascara = 0;
+        if (recursos != null) {
+            for (Recurso recurso : recursos) {
+                mascara |= 1 << recurso.ordinal();
+            }
+        }
+        return mascara;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pduarteo.reserva_salas.support.exceptions;
+
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+
+/**
+ * Parâmetro de consulta que viola uma regra de negócio (ex.: data passada na busca de salas livres).
+ * Respondida com 400 em vez de 422, pois a requisição em si é inválida; a rejeição é contada pela regra.
+ */
+public class ParametroInvalidoException extends RegraNegocioException {
+
+    public ParametroInvalidoException(RegraViolada regra, String message) {
+        super(regra, message);
+    }
+}
@@ -1,7 +1,17 @@
 package com.pduarteo.reserva_salas.support.exceptions;
 
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+
 public class RegraNegocioException extends RuntimeException {
-    public RegraNegocioException(String message) {
+
+    private final RegraViolada regra;
+
+    public RegraNegocioException(RegraViolada regra, String message) {
         super(message);
+        this.regra = regra;
+    }
+
+    public RegraViolada getRegra() {
+        return regra;
     }
 }
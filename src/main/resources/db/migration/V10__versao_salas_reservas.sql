@@ -0,0 +1,6 @@
+-- Versão de cada sala e reserva, incrementada a cada atualização (@Version do JPA).
+-- É exposta como ETag forte nas leituras por id e conferida pelo If-Match na atualização de salas.
+
+ALTER TABLE salas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE reservas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Chaves de idempotência de POST /api/reservas, usadas quando reservas.idempotencia.armazenamento=banco.
+-- A linha é inserida na mesma transação da reserva: uma repetição concorrente espera no insert da chave
+-- e, após o commit da original, lê a resposta registrada. Linhas vencidas são removidas periodicamente.
+
+CREATE TABLE idempotencia_reservas (
+    chave           VARCHAR(255) PRIMARY KEY,
+    hash_requisicao VARCHAR(32)  NOT NULL,
+    resposta        JSONB,
+    criada_em       TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_idempotencia_reservas_criada_em ON idempotencia_reservas (criada_em);
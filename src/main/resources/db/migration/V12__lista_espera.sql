@@ -0,0 +1,27 @@
+-- Lista de espera por horários lotados: quem recebe conflito de horário entra na fila em vez de
+-- repetir a criação em loop. O cancelamento de uma reserva promove, na mesma transação e em ordem
+-- de chegada, as entradas aguardando que couberem no horário liberado.
+
+CREATE TABLE lista_espera (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sala_id            BIGINT       NOT NULL,
+    data_reserva       DATE         NOT NULL,
+    hora_inicio        TIME         NOT NULL,
+    hora_fim           TIME         NOT NULL,
+    responsavel        VARCHAR(255) NOT NULL,
+    email_responsavel  VARCHAR(255) NOT NULL,
+    descricao          VARCHAR(255),
+    quantidade_pessoas INTEGER,
+    status             VARCHAR(20)  NOT NULL DEFAULT 'AGUARDANDO'
+        CHECK (status IN ('AGUARDANDO', 'PROMOVIDA', 'EXPIRADA', 'CANCELADA')),
+    reserva_id         BIGINT,
+    criada_em          TIMESTAMP    NOT NULL DEFAULT now(),
+    atualizada_em      TIMESTAMP
+);
+
+-- Fila de cada sala/dia, percorrida pelo cancelamento; só as entradas aguardando são indexadas
+CREATE INDEX idx_lista_espera_fila ON lista_espera (sala_id, data_reserva, id) WHERE status = 'AGUARDANDO';
+
+-- Um mesmo responsável não ocupa duas posições para o mesmo horário
+CREATE UNIQUE INDEX uk_lista_espera_aguardando ON lista_espera (sala_id, data_reserva, hora_inicio, hora_fim, email_responsavel)
+    WHERE status = 'AGUARDANDO';
@@ -0,0 +1,6 @@
+-- Corrige a premissa de V6: a identidade é atribuída no insert, não no commit, então sozinha não garante a ordem
+-- dos eventos de uma sala entre transações concorrentes. A ordem vem do OutboxRelay, que insere os eventos no fim
+-- da transação com a sala bloqueada (lock consultivo), e do relay, que lê cada ciclo em um único snapshot.
+
+COMMENT ON COLUMN outbox_reservas.id IS
+    'Ordem de gravação por sala: inserido no fim da transação com a sala bloqueada, segue a ordem dos commits da sala';
@@ -0,0 +1,28 @@
+-- Esquema gerado anteriormente pelo ddl-auto=update.
+-- Usa IF NOT EXISTS para que bancos já existentes possam adotar as migrações (baseline 0).
+
+CREATE TABLE IF NOT EXISTS salas (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome       VARCHAR(50) NOT NULL,
+    capacidade INTEGER     NOT NULL,
+    andar      INTEGER     NOT NULL,
+    ativa      BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS sala_recursos (
+    sala_id  BIGINT NOT NULL REFERENCES salas (id),
+    recursos VARCHAR(255) CHECK (recursos IN ('PROJETOR', 'QUADRO_BRANCO', 'VIDEO_CONFERENCIA',
+                                              'AR_CONDICIONADO', 'TV', 'TELEFONE', 'COMPUTADOR'))
+);
+
+CREATE TABLE IF NOT EXISTS reservas (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sala_id            BIGINT       NOT NULL,
+    data_reserva       DATE         NOT NULL,
+    hora_inicio        TIME         NOT NULL,
+    hora_fim           TIME         NOT NULL,
+    responsavel        VARCHAR(255) NOT NULL,
+    email_responsavel  VARCHAR(255) NOT NULL,
+    descricao          VARCHAR(255),
+    quantidade_pessoas INTEGER
+);
@@ -0,0 +1,11 @@
+-- Garante no próprio banco que uma sala não tenha duas reservas sobrepostas.
+-- O intervalo [inicio, fim) é meio-aberto, então reservas encostadas (09:00-10:00 e 10:00-11:00) são permitidas.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservas
+    ADD COLUMN periodo TSRANGE
+        GENERATED ALWAYS AS (tsrange(data_reserva + hora_inicio, data_reserva + hora_fim)) STORED;
+
+ALTER TABLE reservas
+    ADD CONSTRAINT reservas_sem_sobreposicao EXCLUDE USING gist (sala_id WITH =, periodo WITH &&);
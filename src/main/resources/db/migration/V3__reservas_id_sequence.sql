@@ -0,0 +1,8 @@
+-- Troca a identidade de reservas.id por uma sequence com incremento 50 (otimizador pooled do Hibernate),
+-- permitindo que os inserts de reservas sejam agrupados em batch JDBC.
+
+ALTER TABLE reservas ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE reservas_seq INCREMENT BY 50 OWNED BY reservas.id;
+
+SELECT setval('reservas_seq', (SELECT COALESCE(MAX(id), 0) FROM reservas) + 50);
@@ -0,0 +1,23 @@
+-- Séries de reservas recorrentes: uma linha por série, ocorrências expandidas pela aplicação.
+
+CREATE TABLE series_reserva (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sala_id            BIGINT       NOT NULL,
+    frequencia         VARCHAR(20)  NOT NULL CHECK (frequencia IN ('DIARIA', 'SEMANAL')),
+    data_inicio        DATE         NOT NULL,
+    data_fim           DATE         NOT NULL,
+    hora_inicio        TIME         NOT NULL,
+    hora_fim           TIME         NOT NULL,
+    responsavel        VARCHAR(255) NOT NULL,
+    email_responsavel  VARCHAR(255) NOT NULL,
+    descricao          VARCHAR(255),
+    quantidade_pessoas INTEGER
+);
+
+CREATE INDEX idx_series_reserva_sala_periodo ON series_reserva (sala_id, data_fim, data_inicio);
+
+CREATE TABLE series_reserva_excecoes (
+    serie_id BIGINT NOT NULL REFERENCES series_reserva (id) ON DELETE CASCADE,
+    data     DATE   NOT NULL,
+    PRIMARY KEY (serie_id, data)
+);
@@ -0,0 +1,23 @@
+-- Recursos da sala passam a ser uma máscara de bits em salas.recursos (bit = ordinal do enum Recurso),
+-- eliminando a tabela sala_recursos e o join/select extra por sala.
+
+ALTER TABLE salas ADD COLUMN recursos INTEGER NOT NULL DEFAULT 0;
+
+UPDATE salas s
+SET recursos = r.mascara
+FROM (SELECT sala_id,
+             bit_or(CASE recursos
+                        WHEN 'PROJETOR' THEN 1
+                        WHEN 'QUADRO_BRANCO' THEN 2
+                        WHEN 'VIDEO_CONFERENCIA' THEN 4
+                        WHEN 'AR_CONDICIONADO' THEN 8
+                        WHEN 'TV' THEN 16
+                        WHEN 'TELEFONE' THEN 32
+                        WHEN 'COMPUTADOR' THEN 64
+                        ELSE 0
+                    END) AS mascara
+      FROM sala_recursos
+      GROUP BY sala_id) r
+WHERE r.sala_id = s.id;
+
+DROP TABLE sala_recursos;
@@ -0,0 +1,11 @@
+-- Outbox transacional dos eventos de reserva: gravado na mesma transação da reserva
+-- e drenado em lotes pelo OutboxRelay. A identidade (incremento 1, um valor por insert)
+-- mantém a ordem de gravação dos eventos de cada sala, mesmo com várias instâncias.
+
+CREATE TABLE outbox_reservas (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sala_id   BIGINT      NOT NULL,
+    tipo      VARCHAR(20) NOT NULL,
+    payload   JSONB       NOT NULL,
+    criado_em TIMESTAMP   NOT NULL DEFAULT now()
+);
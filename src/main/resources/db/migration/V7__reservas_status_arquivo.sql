@@ -0,0 +1,76 @@
+-- Cancelamento lógico: a reserva cancelada continua registrada com status CANCELADA.
+-- A constraint de exclusão passa a considerar apenas reservas ativas, liberando o horário cancelado.
+
+ALTER TABLE reservas
+    ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'ATIVA' CHECK (status IN ('ATIVA', 'CANCELADA')),
+    ADD COLUMN cancelada_em TIMESTAMP;
+
+ALTER TABLE reservas DROP CONSTRAINT reservas_sem_sobreposicao;
+
+ALTER TABLE reservas
+    ADD CONSTRAINT reservas_sem_sobreposicao
+        EXCLUDE USING gist (sala_id WITH =, periodo WITH &&) WHERE (status = 'ATIVA');
+
+-- Arquivo das reservas antigas, particionado por mês de data_reserva.
+-- A tabela quente (reservas) não é particionada: no PostgreSQL 16 uma tabela particionada não aceita
+-- a constraint de exclusão acima, e a chave primária teria de incluir data_reserva.
+-- Em vez disso, reservas fica restrita à janela recente e as linhas antigas são movidas para cá.
+
+CREATE TABLE reservas_arquivo (
+    id                 BIGINT       NOT NULL,
+    sala_id            BIGINT       NOT NULL,
+    data_reserva       DATE         NOT NULL,
+    hora_inicio        TIME         NOT NULL,
+    hora_fim           TIME         NOT NULL,
+    responsavel        VARCHAR(255) NOT NULL,
+    email_responsavel  VARCHAR(255) NOT NULL,
+    descricao          VARCHAR(255),
+    quantidade_pessoas INTEGER,
+    status             VARCHAR(20)  NOT NULL,
+    cancelada_em       TIMESTAMP,
+    arquivada_em       TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, data_reserva)
+) PARTITION BY RANGE (data_reserva);
+
+-- Move para o arquivo as reservas do mês mais antigo anterior a limite, criando a partição do mês
+-- se necessário. Retorna a quantidade de linhas movidas (0 quando não há mais nada a arquivar),
+-- de modo que cada mês é arquivado em uma transação curta.
+CREATE FUNCTION arquivar_reservas(limite DATE) RETURNS INTEGER AS $$
+DECLARE
+    inicio_mes DATE;
+    fim_mes    DATE;
+    particao   TEXT;
+    movidas    INTEGER;
+BEGIN
+    -- Serializa o arquivamento entre instâncias (a criação da partição não é concorrente)
+    PERFORM pg_advisory_xact_lock(hashtext('reservas_arquivo'));
+
+    SELECT date_trunc('month', min(data_reserva))::date INTO inicio_mes
+    FROM reservas
+    WHERE data_reserva < limite;
+
+    IF inicio_mes IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    fim_mes := LEAST((inicio_mes + INTERVAL '1 month')::date, limite);
+    particao := format('reservas_arquivo_%s', to_char(inicio_mes, 'YYYY_MM'));
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF reservas_arquivo FOR VALUES FROM (%L) TO (%L)',
+                   particao, inicio_mes, (inicio_mes + INTERVAL '1 month')::date);
+
+    WITH removidas AS (
+        DELETE FROM reservas
+        WHERE data_reserva >= inicio_mes AND data_reserva < fim_mes
+        RETURNING id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel,
+                  descricao, quantidade_pessoas, status, cancelada_em
+    )
+    INSERT INTO reservas_arquivo (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel,
+                                  descricao, quantidade_pessoas, status, cancelada_em)
+    SELECT id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel,
+           descricao, quantidade_pessoas, status, cancelada_em
+    FROM removidas;
+
+    GET DIAGNOSTICS movidas = ROW_COUNT;
+    RETURN movidas;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,6 @@
+-- Índices das consultas de ReservaRepository, para que não caiam em varredura sequencial com o crescimento da tabela:
+-- reservas de uma sala em um período (listagem por sala, séries, lote) e reservas de um responsável.
+
+CREATE INDEX idx_reservas_sala_data_inicio ON reservas (sala_id, data_reserva, hora_inicio);
+
+CREATE INDEX idx_reservas_email_data ON reservas (email_responsavel, data_reserva);
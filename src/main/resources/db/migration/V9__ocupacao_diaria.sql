@@ -0,0 +1,31 @@
+-- Agregado diário de ocupação por sala, mantido incrementalmente (upsert) a cada reserva criada ou cancelada.
+-- Relatórios de ocupação leem no máximo uma linha por sala e dia, independente do número de reservas.
+
+CREATE TABLE ocupacao_diaria (
+    sala_id            BIGINT  NOT NULL,
+    data               DATE    NOT NULL,
+    minutos_reservados INTEGER NOT NULL DEFAULT 0,
+    reservas           INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (sala_id, data)
+);
+
+-- Carga inicial: reservas ativas (inclusive as já arquivadas) e ocorrências das séries
+INSERT INTO ocupacao_diaria (sala_id, data, minutos_reservados, reservas)
+SELECT sala_id, data, sum(minutos), count(*)
+FROM (
+    SELECT sala_id, data_reserva AS data, extract(epoch FROM hora_fim - hora_inicio)::integer / 60 AS minutos
+    FROM reservas
+    WHERE status = 'ATIVA'
+    UNION ALL
+    SELECT sala_id, data_reserva, extract(epoch FROM hora_fim - hora_inicio)::integer / 60
+    FROM reservas_arquivo
+    WHERE status = 'ATIVA'
+    UNION ALL
+    SELECT s.sala_id, d::date, extract(epoch FROM s.hora_fim - s.hora_inicio)::integer / 60
+    FROM series_reserva s
+             CROSS JOIN generate_series(s.data_inicio, s.data_fim, INTERVAL '1 day') AS d
+    WHERE extract(isodow FROM d) < 6
+      AND (s.frequencia = 'DIARIA' OR extract(isodow FROM d) = extract(isodow FROM s.data_inicio))
+      AND NOT EXISTS (SELECT 1 FROM series_reserva_excecoes e WHERE e.serie_id = s.id AND e.data = d::date)
+) ocupacoes
+GROUP BY sala_id, data;
@@ -0,0 +1,69 @@
+package com.pduarteo.reserva_salas;
+
+import com.pduarteo.reserva_salas.dto.CriarReservaDTO;
+import com.pduarteo.reserva_salas.dto.CriarSalaDTO;
+import com.pduarteo.reserva_salas.service.SalaService;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base dos testes que criam salas e reservas no banco.
+ * Cada sala recebe um nome único e, ao fim do teste, ela e tudo o que foi gravado para ela
+ * (reservas, séries, outbox, agregados e lista de espera) são apagados, sem deixar dados no banco de desenvolvimento.
+ * O relay agendado do outbox fica parado: os contextos de teste ficam em cache com seus agendamentos ativos
+ * e um deles não pode drenar o outbox que outro teste está verificando. Os testes chamam OutboxRelay#drenar diretamente.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "reservas.outbox.intervalo-ms=3600000")
+public abstract class CenarioReservas {
+
+    private static final String[] TABELAS_POR_SALA = {
+            "lista_espera", "outbox_reservas", "ocupacao_diaria", "reservas", "reservas_arquivo", "series_reserva"
+    };
+
+    @Autowired
+    protected SalaService salaService;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private final List<Long> salasCriadas = new ArrayList<>();
+
+    @AfterEach
+    void removerDadosDasSalas() {
+        for (Long salaId : salasCriadas) {
+            for (String tabela : TABELAS_POR_SALA) {
+                jdbcTemplate.update("DELETE FROM " + tabela + " WHERE sala_id = ?", salaId);
+            }
+            salaService.deletarSala(salaId);
+        }
+        salasCriadas.clear();
+    }
+
+    /**
+     * Cria uma sala ativa de capacidade 10 no andar informado, removida ao fim do teste.
+     */
+    protected Long criarSala(String prefixo, int andar) {
+        Long salaId = salaService.criarSala(new CriarSalaDTO(prefixo + " " + System.nanoTime() % 1_000_000_000L, 10, andar, null)).id();
+        salasCriadas.add(salaId);
+        return salaId;
+    }
+
+    protected static LocalDate proximaSegunda() {
+        return LocalDate.now(ZoneId.of("America/Fortaleza")).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    protected static CriarReservaDTO reserva(Long salaId, LocalDate data, int horaInicio, int horaFim, String email) {
+        return new CriarReservaDTO(salaId, data, LocalTime.of(horaInicio, 0), LocalTime.of(horaFim, 0), "Teste", email, null, 2);
+    }
+}
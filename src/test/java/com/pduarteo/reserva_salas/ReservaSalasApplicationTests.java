@@ -1,10 +1,8 @@
 package com.pduarteo.reserva_salas;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class ReservaSalasApplicationTests {
+class ReservaSalasApplicationTests extends CenarioReservas {
 
 	@Test
 	void contextLoads() {
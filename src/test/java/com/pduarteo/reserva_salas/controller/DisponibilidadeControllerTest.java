@@ -0,0 +1,41 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.DisponibilidadeDTO;
+import com.pduarteo.reserva_salas.service.ReservaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisponibilidadeControllerTest extends CenarioReservas {
+
+    @Autowired
+    private DisponibilidadeController disponibilidadeController;
+    @Autowired
+    private ReservaService reservaService;
+
+    @Test
+    void ifNoneMatchResponde304AteAGradeMudar() {
+        Long salaId = criarSala("Disponibilidade ETag", 33);
+        LocalDate segunda = proximaSegunda();
+
+        ResponseEntity<DisponibilidadeDTO> primeira = disponibilidadeController.buscarDisponibilidade(33, segunda, null).block();
+        String etag = primeira.getHeaders().getETag();
+        assertThat(primeira.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isNotBlank();
+
+        ResponseEntity<DisponibilidadeDTO> revalidada = disponibilidadeController.buscarDisponibilidade(33, segunda, etag).block();
+        assertThat(revalidada.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidada.getBody()).isNull();
+
+        reservaService.criarReserva(reserva(salaId, segunda, 14, 15, "etag@empresa.com"));
+        ResponseEntity<DisponibilidadeDTO> alterada = disponibilidadeController.buscarDisponibilidade(33, segunda, etag).block();
+        assertThat(alterada.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(alterada.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+}
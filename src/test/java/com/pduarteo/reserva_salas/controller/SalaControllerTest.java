@@ -0,0 +1,68 @@
+package com.pduarteo.reserva_salas.controller;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SalaControllerTest extends CenarioReservas {
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurarMockMvc() {
+        // Sem os filtros: o limite de taxa não entra no que se verifica aqui
+        mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+    }
+
+    @Test
+    void ifNoneMatchDaVersaoAtualResponde304() throws Exception {
+        Long salaId = criarSala("ETag", 19);
+
+        mockMvc.perform(get("/api/salas/{id}", salaId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        mockMvc.perform(get("/api/salas/{id}", salaId).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/salas/{id}", salaId).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifMatchDesatualizadoResponde412SemAlterarASala() throws Exception {
+        Long salaId = criarSala("ETag", 19);
+        String corpo = "{\"nome\": \"ETag alterada " + salaId + "\", \"capacidade\": 12, \"andar\": 19}";
+
+        mockMvc.perform(put("/api/salas/{id}", salaId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        // Quem ainda tem o ETag anterior não sobrescreve a alteração
+        mockMvc.perform(put("/api/salas/{id}", salaId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo.replace("12", "20")))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/salas/{id}", salaId).header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo.replace("12", "20")))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/salas/{id}", salaId))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(content().string(containsString("\"capacidade\":12")));
+    }
+}
@@ -0,0 +1,147 @@
+package com.pduarteo.reserva_salas.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que as consultas de ReservaRepository usam índice com um volume realista de reservas.
+ * O SQL gerado pelo Hibernate é capturado e analisado com EXPLAIN, com os mesmos parâmetros da chamada.
+ * As reservas de carga e as estatísticas do ANALYZE são desfeitas no rollback de cada teste.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.pduarteo.reserva_salas.repository.PlanoConsultasReservaTest$ConsultasCapturadas",
+        // Relay parado como em CenarioReservas: o contexto fica em cache e não pode drenar o outbox de outros testes
+        "reservas.outbox.intervalo-ms=3600000"
+})
+@Transactional
+class PlanoConsultasReservaTest {
+
+    private static final long PRIMEIRA_SALA = 1_000_000L;
+    private static final int SALAS = 500;
+    private static final int DIAS = 90;
+    private static final LocalDate HOJE = LocalDate.now(ZoneId.of("America/Fortaleza"));
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void carregarReservas() {
+        // Uma reserva por sala e dia na janela de 90 dias, com ids negativos para não consumir a sequência
+        jdbcTemplate.update("""
+                INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel,
+                                      quantidade_pessoas)
+                SELECT -1 - i, ? + i % ?, CAST(? AS date) + (i / ?) % ?, '09:00', '10:00', 'Plano',
+                       'plano' || i % 1000 || '@empresa.com', 2
+                FROM generate_series(0, ? - 1) AS i
+                """, PRIMEIRA_SALA, SALAS, HOJE, SALAS, DIAS, SALAS * DIAS);
+        jdbcTemplate.execute("ANALYZE reservas");
+    }
+
+    @Test
+    void reservasDaSalaNoPeriodoUsamIndice() {
+        assertUsaIndice(() -> reservaRepository.findAllBySalaIdAndDataReservaBetween(PRIMEIRA_SALA + 7, HOJE, HOJE.plusDays(7)),
+                PRIMEIRA_SALA + 7, HOJE, HOJE.plusDays(7));
+    }
+
+    @Test
+    void reservasDoResponsavelUsamIndice() {
+        assertUsaIndice(() -> reservaRepository.listarRetornosPorEmail("plano7@empresa.com"), "plano7@empresa.com");
+    }
+
+    @Test
+    void reservasDoLoteUsamIndice() {
+        assertUsaIndice(() -> reservaRepository.findAllBySalaIdInAndDataReservaIn(
+                        List.of(PRIMEIRA_SALA + 1, PRIMEIRA_SALA + 2), List.of(HOJE, HOJE.plusDays(1))),
+                PRIMEIRA_SALA + 1, PRIMEIRA_SALA + 2, HOJE, HOJE.plusDays(1));
+    }
+
+    @Test
+    void reservaPorIdUsaIndice() {
+        assertUsaIndice(() -> reservaRepository.findById(-5L), -5L);
+    }
+
+    @Test
+    void sobreposicaoNaSalaUsaIndice() {
+        LocalTime inicio = LocalTime.of(9, 30);
+        LocalTime fim = LocalTime.of(10, 30);
+        // O JPQL compara horaInicio < :horaFim e horaFim > :horaInicio, nessa ordem
+        assertUsaIndice(() -> reservaRepository.existeSobreposicao(PRIMEIRA_SALA + 3, HOJE, inicio, fim),
+                PRIMEIRA_SALA + 3, HOJE, fim, inicio);
+    }
+
+    @Test
+    void retornosDaSalaNoPeriodoUsamIndice() {
+        assertUsaIndice(() -> reservaRepository.listarRetornosPorSala(PRIMEIRA_SALA + 11, HOJE, HOJE.plusDays(7)),
+                PRIMEIRA_SALA + 11, HOJE, HOJE.plusDays(7));
+    }
+
+    @Test
+    void exportacaoFiltradaPorSalaUsaIndice() {
+        // Cada filtro opcional aparece duas vezes no SQL: no teste "is null" e na comparação
+        SqlParameterValue semEmail = new SqlParameterValue(Types.VARCHAR, null);
+        assertUsaIndice(() -> reservaRepository.streamFiltradas(PRIMEIRA_SALA + 5, null, HOJE, HOJE.plusDays(30)).close(),
+                PRIMEIRA_SALA + 5, PRIMEIRA_SALA + 5, semEmail, semEmail, HOJE, HOJE, HOJE.plusDays(30), HOJE.plusDays(30));
+    }
+
+    @Test
+    void paginaPorCursorUsaIndice() {
+        assertUsaIndice(() -> reservaRepository.listarRetornosAposId(-100L, PageRequest.of(0, 20, Sort.by("id"))),
+                -100L, 21);
+    }
+
+    /**
+     * Executa a consulta, captura o SQL gerado e verifica o plano com os parâmetros informados,
+     * na ordem em que aparecem no SQL.
+     */
+    private void assertUsaIndice(Runnable consulta, Object... parametros) {
+        ConsultasCapturadas.SQLS.clear();
+        ConsultasCapturadas.thread = Thread.currentThread();
+        try {
+            consulta.run();
+        } finally {
+            ConsultasCapturadas.thread = null;
+        }
+        assertThat(ConsultasCapturadas.SQLS).hasSize(1);
+
+        String sql = ConsultasCapturadas.SQLS.get(0);
+        List<String> plano = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros);
+        assertThat(plano)
+                .as("plano de %s", sql)
+                .noneMatch(linha -> linha.contains("Seq Scan on reservas"));
+    }
+
+    public static class ConsultasCapturadas implements StatementInspector {
+
+        static final List<String> SQLS = new CopyOnWriteArrayList<>();
+        // Só a thread do teste é capturada; tarefas agendadas (relay do outbox) usam o mesmo inspector
+        static volatile Thread thread;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                SQLS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArquivamentoReservasTest extends CenarioReservas {
+
+    @Autowired
+    private ArquivamentoReservas arquivamentoReservas;
+
+    @Test
+    void reservasAnterioresARetencaoSaoMovidasParaOArquivo() {
+        Long salaId = criarSala("Arquivo", 37);
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Fortaleza"));
+        // Retenção de 30 dias (application.properties): duas reservas em meses diferentes saem, a recente fica
+        inserir(salaId, hoje.minusDays(70), "ATIVA");
+        inserir(salaId, hoje.minusDays(40), "CANCELADA");
+        inserir(salaId, hoje.minusDays(5), "ATIVA");
+
+        int arquivadas = arquivamentoReservas.arquivar();
+
+        assertThat(arquivadas).isGreaterThanOrEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT data_reserva FROM reservas WHERE sala_id = ?", LocalDate.class, salaId))
+                .containsExactly(hoje.minusDays(5));
+        List<String> arquivo = jdbcTemplate.queryForList(
+                "SELECT status FROM reservas_arquivo WHERE sala_id = ? ORDER BY data_reserva", String.class, salaId);
+        assertThat(arquivo).containsExactly("ATIVA", "CANCELADA");
+        // Uma segunda execução não encontra mais nada da sala para mover
+        arquivamentoReservas.arquivar();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM reservas_arquivo WHERE sala_id = ?", Integer.class, salaId))
+                .isEqualTo(2);
+    }
+
+    private void inserir(Long salaId, LocalDate data, String status) {
+        jdbcTemplate.update("""
+                INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel, status)
+                VALUES (nextval('reservas_seq'), ?, ?, '09:00', '10:00', 'Teste', 'arquivo@empresa.com', ?)
+                """, salaId, data, status);
+    }
+}
@@ -0,0 +1,75 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.DisponibilidadeDTO;
+import com.pduarteo.reserva_salas.dto.DisponibilidadeSalaDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisponibilidadeServiceTest extends CenarioReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+
+    @Test
+    void gradeMarcaOsIntervalosReservadosDoDia() {
+        Long salaId = criarSala("Disponibilidade", 32);
+        LocalDate segunda = proximaSegunda();
+        reservaService.criarReserva(reserva(salaId, segunda, 9, 11, "grade@empresa.com"));
+
+        DisponibilidadeDTO grade = disponibilidadeService.montar(32, segunda.plusDays(2));
+
+        assertThat(grade.semana()).isEqualTo(segunda);
+        assertThat(grade.dias()).hasSize(5).first().isEqualTo(segunda);
+        // 09:00-11:00 ocupa os intervalos 2 a 5 (08:00 + 30 * i)
+        assertThat(linhaDaSala(grade, salaId).indisponivel()).containsExactly(0b111100, 0, 0, 0, 0);
+    }
+
+    @Test
+    void gradeVemDoBancoComAsOcorrenciasDeSeries() {
+        Long salaId = criarSala("Disponibilidade", 32);
+        LocalDate segunda = proximaSegunda();
+        // Gravadas por outra instância, sem passar pelo índice desta; a série diária tem exceção na quarta
+        jdbcTemplate.update("""
+                INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel)
+                VALUES (nextval('reservas_seq'), ?, ?, '08:00', '08:30', 'Teste', 'outra@empresa.com')
+                """, salaId, segunda);
+        Long serieId = jdbcTemplate.queryForObject("""
+                INSERT INTO series_reserva (sala_id, frequencia, data_inicio, data_fim, hora_inicio, hora_fim,
+                                            responsavel, email_responsavel)
+                VALUES (?, 'DIARIA', ?, ?, '17:00', '18:00', 'Teste', 'outra@empresa.com')
+                RETURNING id
+                """, Long.class, salaId, segunda.plusDays(1), segunda.plusDays(3));
+        jdbcTemplate.update("INSERT INTO series_reserva_excecoes (serie_id, data) VALUES (?, ?)", serieId, segunda.plusDays(2));
+
+        DisponibilidadeDTO grade = disponibilidadeService.montar(32, segunda);
+
+        // 17:00-18:00 ocupa os intervalos 18 e 19
+        int fimDoDia = 0b11 << 18;
+        assertThat(linhaDaSala(grade, salaId).indisponivel()).containsExactly(0b1, fimDoDia, 0, fimDoDia, 0);
+    }
+
+    @Test
+    void salaInativaFicaForaDaGrade() {
+        Long ativa = criarSala("Disponibilidade", 32);
+        Long inativa = criarSala("Disponibilidade inativa", 32);
+        jdbcTemplate.update("UPDATE salas SET ativa = false WHERE id = ?", inativa);
+
+        DisponibilidadeDTO grade = disponibilidadeService.montar(32, proximaSegunda());
+
+        assertThat(grade.salas()).extracting(DisponibilidadeSalaDTO::salaId).contains(ativa).doesNotContain(inativa);
+    }
+
+    private static DisponibilidadeSalaDTO linhaDaSala(DisponibilidadeDTO grade, Long salaId) {
+        return grade.salas().stream()
+                .filter(sala -> sala.salaId().equals(salaId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.EntradaEsperaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.enums.StatusEspera;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListaEsperaServiceTest extends CenarioReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Test
+    void cancelamentoPromoveAFilaPorOrdemDeChegada() {
+        Long salaId = criarSala("Espera", 31);
+        LocalDate segunda = proximaSegunda();
+
+        RetornoReservaDTO original = reservaService.criarReserva(reserva(salaId, segunda, 9, 11, "original@empresa.com"));
+        EntradaEsperaDTO primeira = listaEsperaService.entrar(reserva(salaId, segunda, 9, 10, "primeira@empresa.com"));
+        EntradaEsperaDTO concorrente = listaEsperaService.entrar(reserva(salaId, segunda, 9, 10, "concorrente@empresa.com"));
+        EntradaEsperaDTO estendida = listaEsperaService.entrar(reserva(salaId, segunda, 10, 12, "estendida@empresa.com"));
+        assertThat(primeira.status()).isEqualTo(StatusEspera.AGUARDANDO);
+        assertThat(primeira.posicao()).isEqualTo(1);
+        assertThat(estendida.posicao()).isEqualTo(3);
+        assertThat(listaEsperaService.entrar(reserva(salaId, segunda, 9, 10, "primeira@empresa.com")).id()).isEqualTo(primeira.id());
+
+        reservaService.cancelarReserva(original.id());
+
+        EntradaEsperaDTO promovida = listaEsperaService.buscar(primeira.id());
+        assertThat(promovida.status()).isEqualTo(StatusEspera.PROMOVIDA);
+        assertThat(reservaService.buscarReservaPorId(promovida.reservaId()).emailResponsavel()).isEqualTo("primeira@empresa.com");
+        assertThat(listaEsperaService.buscar(concorrente.id()).status()).isEqualTo(StatusEspera.AGUARDANDO);
+        assertThat(listaEsperaService.buscar(estendida.id()).status()).isEqualTo(StatusEspera.PROMOVIDA);
+        // O horário repassado continua ocupado para novas reservas
+        assertThatThrownBy(() -> reservaService.criarReserva(reserva(salaId, segunda, 9, 10, "outra@empresa.com")))
+                .isInstanceOfSatisfying(RegraNegocioException.class,
+                        e -> assertThat(e.getRegra()).isEqualTo(RegraViolada.CONFLITO_HORARIO));
+
+        listaEsperaService.sair(concorrente.id());
+        assertThat(listaEsperaService.buscar(concorrente.id()).status()).isEqualTo(StatusEspera.CANCELADA);
+    }
+}
@@ -0,0 +1,106 @@
+package com.pduarteo.reserva_salas.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OcupacaoIndexTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void mascaraCobreOsIntervalosDeTrintaMinutos() {
+        assertThat(OcupacaoIndex.mascara(LocalTime.of(8, 0), LocalTime.of(8, 30))).isEqualTo(0b1);
+        assertThat(OcupacaoIndex.mascara(LocalTime.of(9, 0), LocalTime.of(10, 0))).isEqualTo(0b1100);
+        assertThat(OcupacaoIndex.mascara(LocalTime.of(8, 0), LocalTime.of(18, 0))).isEqualTo((1 << 20) - 1);
+    }
+
+    @Test
+    void ocuparRecusaIntervaloSobreposto() {
+        OcupacaoIndex index = new OcupacaoIndex();
+
+        assertThat(index.ocupar(1L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0))).isTrue();
+        assertThat(index.ocupar(1L, DATA, LocalTime.of(9, 30), LocalTime.of(10, 30))).isFalse();
+        assertThat(index.ocupar(1L, DATA, LocalTime.of(10, 0), LocalTime.of(11, 0))).isTrue();
+        assertThat(index.ocupar(2L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0))).isTrue();
+    }
+
+    @Test
+    void ocupacoesConcorrentesNaoGeramReservaDupla() throws InterruptedException {
+        OcupacaoIndex index = new OcupacaoIndex();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int tentativasPorThread = 20_000;
+        int salas = 4;
+        ConcurrentLinkedQueue<Aceite> aceites = new ConcurrentLinkedQueue<>();
+
+        executar(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < tentativasPorThread; i++) {
+                long salaId = random.nextInt(salas);
+                LocalDate data = DATA.plusDays(random.nextInt(5));
+                int inicio = random.nextInt(20);
+                int fim = Math.min(20, inicio + 1 + random.nextInt(8));
+                LocalTime horaInicio = LocalTime.of(8, 0).plusMinutes(inicio * 30L);
+                LocalTime horaFim = LocalTime.of(8, 0).plusMinutes(fim * 30L);
+                if (index.ocupar(salaId, data, horaInicio, horaFim)) {
+                    aceites.add(new Aceite(salaId, data, OcupacaoIndex.mascara(horaInicio, horaFim)));
+                }
+            }
+        });
+
+        Map<String, Integer> ocupadas = new HashMap<>();
+        for (Aceite aceite : aceites) {
+            String chave = aceite.salaId() + "|" + aceite.data();
+            int anterior = ocupadas.getOrDefault(chave, 0);
+            assertThat(anterior & aceite.mascara()).as("reserva dupla em %s", chave).isZero();
+            ocupadas.put(chave, anterior | aceite.mascara());
+        }
+        assertThat(aceites).isNotEmpty();
+    }
+
+    @Test
+    void disputaPeloMesmoIntervaloTemUmUnicoVencedor() throws InterruptedException {
+        OcupacaoIndex index = new OcupacaoIndex();
+        int threads = 16;
+        AtomicInteger vencedores = new AtomicInteger();
+
+        executar(threads, () -> {
+            if (index.ocupar(1L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0))) {
+                vencedores.incrementAndGet();
+            }
+        });
+
+        assertThat(vencedores).hasValue(1);
+        assertThat(index.mascaraDoDia(1L, DATA)).isEqualTo(0b1100);
+    }
+
+    private static void executar(int threads, Runnable tarefa) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                largada.await();
+                tarefa.run();
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private record Aceite(long salaId, LocalDate data, int mascara) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.OcupacaoDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OcupacaoServiceTest extends CenarioReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private OcupacaoService ocupacaoService;
+
+    @Test
+    void agregadoAcompanhaCriacaoECancelamento() {
+        Long salaId = criarSala("Ocupacao", 30);
+        LocalDate segunda = proximaSegunda();
+        LocalDate domingo = segunda.plusDays(6);
+
+        reservaService.criarReserva(reserva(salaId, segunda, 9, 11, "ocupacao@empresa.com"));
+        reservaService.criarReserva(reserva(salaId, segunda, 14, 15, "ocupacao@empresa.com"));
+        RetornoReservaDTO cancelada = reservaService.criarReserva(reserva(salaId, segunda.plusDays(1), 9, 10, "ocupacao@empresa.com"));
+        reservaService.cancelarReserva(cancelada.id());
+
+        OcupacaoDTO sala = ocupacaoService.ocupacaoDaSala(salaId, segunda, domingo);
+        assertThat(sala.minutosDisponiveis()).isEqualTo(5L * OcupacaoService.MINUTOS_EXPEDIENTE);
+        assertThat(sala.minutosReservados()).isEqualTo(180);
+        assertThat(sala.reservas()).isEqualTo(2);
+        assertThat(sala.porDiaDaSemana().get(DayOfWeek.MONDAY).taxaOcupacao()).isEqualTo(0.3);
+        assertThat(sala.porDiaDaSemana().get(DayOfWeek.TUESDAY).minutosReservados()).isZero();
+
+        OcupacaoDTO andar = ocupacaoService.ocupacaoDoAndar(30, segunda, domingo);
+        assertThat(andar.porSala()).anySatisfy(ocupacao -> {
+            assertThat(ocupacao.salaId()).isEqualTo(salaId);
+            assertThat(ocupacao.minutosReservados()).isEqualTo(180);
+        });
+    }
+}
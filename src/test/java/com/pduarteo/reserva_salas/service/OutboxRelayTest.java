@@ -0,0 +1,73 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.TipoEventoReserva;
+import com.pduarteo.reserva_salas.model.EventoOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "reservas.outbox.destino=memoria",
+        "reservas.outbox.tamanho-lote=2"
+})
+class OutboxRelayTest extends CenarioReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @MockitoSpyBean
+    private PublicadorEventosMemoria publicador;
+
+    @Test
+    void eventosDaReservaSaoPublicadosEmOrdemAposODreno() {
+        Long salaId = criarSala("Outbox", 20);
+        RetornoReservaDTO reserva = reservaService.criarReserva(reserva(salaId, proximaSegunda(), 10, 11, "outbox@empresa.com"));
+        reservaService.cancelarReserva(reserva.id());
+        assertThat(eventosDaSala(salaId)).isEmpty();
+
+        outboxRelay.drenar();
+
+        assertThat(eventosDaSala(salaId))
+                .extracting(EventoOutbox::getTipo)
+                .containsExactly(TipoEventoReserva.CRIADA, TipoEventoReserva.CANCELADA);
+        assertThat(eventosDaSala(salaId).get(0).getPayload()).containsPattern("\"id\":\\s*" + reserva.id());
+    }
+
+    @Test
+    void salaComFalhaNaoImpedeAPublicacaoDasDemais() {
+        Long salaComFalha = criarSala("Outbox falha", 20);
+        Long salaId = criarSala("Outbox", 20);
+        LocalDate segunda = proximaSegunda();
+        // Os eventos da sala com falha ocupam a primeira página inteira (tamanho-lote=2)
+        for (int hora = 9; hora < 12; hora++) {
+            reservaService.criarReserva(reserva(salaComFalha, segunda, hora, hora + 1, "falha@empresa.com"));
+        }
+        reservaService.criarReserva(reserva(salaId, segunda, 9, 10, "outbox@empresa.com"));
+        doThrow(new IllegalStateException("destino indisponível"))
+                .when(publicador).publicar(argThat(eventos -> eventos.get(0).getSalaId().equals(salaComFalha)));
+
+        outboxRelay.drenar();
+
+        assertThat(eventosDaSala(salaId)).extracting(EventoOutbox::getTipo).containsExactly(TipoEventoReserva.CRIADA);
+        assertThat(eventosDaSala(salaComFalha)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_reservas WHERE sala_id = ?", Integer.class,
+                salaComFalha)).isEqualTo(3);
+    }
+
+    private List<EventoOutbox> eventosDaSala(Long salaId) {
+        return publicador.getPublicados().stream()
+                .filter(evento -> evento.getSalaId().equals(salaId))
+                .toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegistroIdempotenciaMemoriaTest {
+
+    private static final RetornoReservaDTO RESERVA = new RetornoReservaDTO(1L, 1L, LocalDate.of(2030, 1, 7),
+            LocalTime.of(9, 0), LocalTime.of(10, 0), "Ana", "ana@empresa.com", null, 2, 0L);
+
+    private final RegistroIdempotenciaMemoria registro = new RegistroIdempotenciaMemoria(Duration.ofHours(1), 100);
+
+    @Test
+    void repeticaoRecebeRespostaSemExecutarCriacao() {
+        AtomicInteger criacoes = new AtomicInteger();
+
+        RegistroIdempotencia.Resultado original = registro.executar("k", "h", () -> {
+            criacoes.incrementAndGet();
+            return RESERVA;
+        });
+        RegistroIdempotencia.Resultado repetida = registro.executar("k", "h", () -> {
+            criacoes.incrementAndGet();
+            return RESERVA;
+        });
+
+        assertThat(original.repetida()).isFalse();
+        assertThat(repetida.repetida()).isTrue();
+        assertThat(repetida.reserva()).isEqualTo(RESERVA);
+        assertThat(criacoes).hasValue(1);
+    }
+
+    @Test
+    void chaveComOutraRequisicaoERecusada() {
+        registro.executar("k", "h", () -> RESERVA);
+
+        assertThatThrownBy(() -> registro.executar("k", "outro", () -> RESERVA))
+                .isInstanceOfSatisfying(RegraNegocioException.class,
+                        e -> assertThat(e.getRegra()).isEqualTo(RegraViolada.CHAVE_IDEMPOTENCIA_REUTILIZADA));
+    }
+
+    @Test
+    void falhaLiberaAChave() {
+        assertThatThrownBy(() -> registro.executar("k", "h", () -> {
+            throw new RegraNegocioException(RegraViolada.CONFLITO_HORARIO, "conflito");
+        })).isInstanceOf(RegraNegocioException.class);
+
+        assertThat(registro.executar("k", "h", () -> RESERVA).repetida()).isFalse();
+    }
+
+    @Test
+    void repeticoesConcorrentesEsperamAOriginal() throws Exception {
+        int threads = 8;
+        AtomicInteger criacoes = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RegistroIdempotencia.Resultado>> resultados = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return registro.executar("k", "h", () -> {
+                        criacoes.incrementAndGet();
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return RESERVA;
+                    });
+                }));
+            }
+            largada.countDown();
+
+            int repetidas = 0;
+            for (Future<RegistroIdempotencia.Resultado> resultado : resultados) {
+                assertThat(resultado.get().reserva()).isEqualTo(RESERVA);
+                repetidas += resultado.get().repetida() ? 1 : 0;
+            }
+            assertThat(criacoes).hasValue(1);
+            assertThat(repetidas).isEqualTo(threads - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.PaginaCursorDTO;
+import com.pduarteo.reserva_salas.dto.ResultadoLoteReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoReservaDTO;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.repository.ReservaLoteRepository;
+import com.pduarteo.reserva_salas.support.Cursor;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservaServiceTest extends CenarioReservas {
+
+    @Autowired
+    private ReservaService reservaService;
+    @Autowired
+    private ReservaLoteRepository reservaLoteRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void loteReportaOsItensInvalidosSemAbortarOsDemais() {
+        Long salaId = criarSala("Lote", 34);
+        LocalDate segunda = proximaSegunda();
+
+        List<ResultadoLoteReservaDTO> resultados = reservaService.criarReservasEmLote(List.of(
+                reserva(salaId, segunda, 9, 10, "lote@empresa.com"),
+                reserva(salaId, segunda, 9, 11, "conflito@empresa.com"),
+                reserva(-1L, segunda, 9, 10, "inexistente@empresa.com"),
+                reserva(salaId, segunda, 10, 11, "lote@empresa.com")));
+
+        assertThat(resultados).extracting(ResultadoLoteReservaDTO::sucesso).containsExactly(true, false, false, true);
+        assertThat(resultados.get(1).erro()).isEqualTo(ReservaService.MENSAGEM_CONFLITO);
+        assertThat(reservaService.buscarReservaPorId(resultados.get(3).reserva().id()).horaInicio().getHour()).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM reservas WHERE sala_id = ?", Integer.class, salaId))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void itemRecusadoPeloBancoNaoDesfazOsDemaisDoLote() {
+        Long salaId = criarSala("Lote", 34);
+        LocalDate segunda = proximaSegunda();
+        // Gravada por outra transação depois das verificações em memória do lote
+        reservaService.criarReserva(reserva(salaId, segunda, 9, 10, "concorrente@empresa.com"));
+
+        List<RetornoReservaDTO> gravadas = transactionTemplate.execute(status -> reservaLoteRepository.inserir(List.of(
+                reserva(salaId, segunda, 9, 10, "lote@empresa.com"),
+                reserva(salaId, segunda, 10, 11, "lote@empresa.com"))));
+
+        assertThat(gravadas.get(0)).isNull();
+        assertThat(gravadas.get(1).id()).isNotNull();
+        assertThat(reservaService.buscarReservaPorId(gravadas.get(1).id()).emailResponsavel()).isEqualTo("lote@empresa.com");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM reservas WHERE sala_id = ?", Integer.class, salaId))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void paginacaoPorCursorPercorreAsReservasEmOrdemDeId() {
+        Long salaId = criarSala("Cursor", 34);
+        LocalDate segunda = proximaSegunda();
+        List<Long> ids = List.of(
+                reservaService.criarReserva(reserva(salaId, segunda, 9, 10, "cursor@empresa.com")).id(),
+                reservaService.criarReserva(reserva(salaId, segunda, 10, 11, "cursor@empresa.com")).id(),
+                reservaService.criarReserva(reserva(salaId, segunda, 11, 12, "cursor@empresa.com")).id());
+
+        PaginaCursorDTO<RetornoReservaDTO> primeira = reservaService.listarReservasPorCursor(Cursor.codificar(ids.get(0) - 1), 2);
+        PaginaCursorDTO<RetornoReservaDTO> seguinte = reservaService.listarReservasPorCursor(primeira.proximoCursor(), 2);
+
+        assertThat(primeira.conteudo()).extracting(RetornoReservaDTO::id).containsExactly(ids.get(0), ids.get(1));
+        assertThat(seguinte.conteudo()).extracting(RetornoReservaDTO::id).startsWith(ids.get(2));
+        assertThatThrownBy(() -> reservaService.listarReservasPorCursor("não é cursor", 2))
+                .isInstanceOfSatisfying(RegraNegocioException.class,
+                        e -> assertThat(e.getRegra()).isEqualTo(RegraViolada.CURSOR_INVALIDO));
+    }
+
+    @Test
+    void exportacaoEscreveUmaReservaAtivaPorLinha() throws IOException {
+        Long salaId = criarSala("Exportacao", 34);
+        LocalDate segunda = proximaSegunda();
+        RetornoReservaDTO primeira = reservaService.criarReserva(reserva(salaId, segunda, 9, 10, "exportacao@empresa.com"));
+        RetornoReservaDTO cancelada = reservaService.criarReserva(reserva(salaId, segunda, 10, 11, "exportacao@empresa.com"));
+        RetornoReservaDTO ultima = reservaService.criarReserva(reserva(salaId, segunda.plusDays(1), 9, 10, "exportacao@empresa.com"));
+        reservaService.cancelarReserva(cancelada.id());
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        reservaService.exportarReservas(salaId, null, segunda, segunda.plusDays(1), saida);
+
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(linhas).hasSize(2);
+        assertThat(objectMapper.readValue(linhas.get(0), RetornoReservaDTO.class)).isEqualTo(primeira);
+        assertThat(objectMapper.readValue(linhas.get(1), RetornoReservaDTO.class).id()).isEqualTo(ultima.id());
+    }
+}
@@ -0,0 +1,40 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.RetornoSalaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalaServiceTest extends CenarioReservas {
+
+    @Test
+    void buscaDeSalasLivresConfirmaNoBancoOQueOIndiceNaoViu() {
+        Long livre = criarSala("Livre", 36);
+        Long comReserva = criarSala("Com reserva", 36);
+        Long comSerie = criarSala("Com serie", 36);
+        LocalDate segunda = proximaSegunda();
+        // Gravadas por outra instância: o índice em memória desta não as conhece
+        jdbcTemplate.update("""
+                INSERT INTO reservas (id, sala_id, data_reserva, hora_inicio, hora_fim, responsavel, email_responsavel)
+                VALUES (nextval('reservas_seq'), ?, ?, '09:00', '10:00', 'Teste', 'outra@empresa.com')
+                """, comReserva, segunda);
+        jdbcTemplate.update("""
+                INSERT INTO series_reserva (sala_id, frequencia, data_inicio, data_fim, hora_inicio, hora_fim,
+                                            responsavel, email_responsavel)
+                VALUES (?, 'SEMANAL', ?, ?, '09:30', '10:30', 'Teste', 'outra@empresa.com')
+                """, comSerie, segunda.minusWeeks(1), segunda.plusWeeks(1));
+
+        List<Long> disponiveis = salaService.buscarSalasDisponiveis(segunda, LocalTime.of(9, 0), LocalTime.of(10, 0), null, null)
+                .stream().map(RetornoSalaDTO::id).toList();
+
+        assertThat(disponiveis).contains(livre).doesNotContain(comReserva, comSerie);
+        // Terça a série não ocorre e a reserva é de outro dia
+        assertThat(salaService.buscarSalasDisponiveis(segunda.plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0), null, null))
+                .extracting(RetornoSalaDTO::id).contains(livre, comReserva, comSerie);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pduarteo.reserva_salas.service;
+
+import com.pduarteo.reserva_salas.CenarioReservas;
+import com.pduarteo.reserva_salas.dto.CriarSerieReservaDTO;
+import com.pduarteo.reserva_salas.dto.RetornoSerieReservaDTO;
+import com.pduarteo.reserva_salas.enums.Frequencia;
+import com.pduarteo.reserva_salas.enums.RegraViolada;
+import com.pduarteo.reserva_salas.support.exceptions.RegraNegocioException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerieReservaServiceTest extends CenarioReservas {
+
+    @Autowired
+    private SerieReservaService serieReservaService;
+    @Autowired
+    private ReservaService reservaService;
+
+    @Test
+    void serieOcupaAsOcorrenciasEAExcecaoLiberaODia() {
+        Long salaId = criarSala("Serie", 35);
+        LocalDate segunda = proximaSegunda();
+        RetornoSerieReservaDTO serie = serieReservaService.criarSerie(serie(salaId, segunda, segunda.plusWeeks(2), 9, 11));
+
+        assertConflito(() -> reservaService.criarReserva(reserva(salaId, segunda.plusWeeks(1), 10, 11, "avulsa@empresa.com")));
+        assertConflito(() -> serieReservaService.criarSerie(serie(salaId, segunda.plusWeeks(2), segunda.plusWeeks(3), 10, 12)));
+        // Terça não é dia de ocorrência da série semanal
+        assertThat(reservaService.criarReserva(reserva(salaId, segunda.plusDays(1), 9, 11, "avulsa@empresa.com")).id()).isNotNull();
+
+        RetornoSerieReservaDTO comExcecao = serieReservaService.adicionarExcecao(serie.id(), segunda.plusWeeks(1));
+
+        assertThat(comExcecao.excecoes()).containsExactly(segunda.plusWeeks(1));
+        assertThat(reservaService.criarReserva(reserva(salaId, segunda.plusWeeks(1), 10, 11, "avulsa@empresa.com")).id()).isNotNull();
+        assertConflito(() -> reservaService.criarReserva(reserva(salaId, segunda.plusWeeks(2), 10, 11, "avulsa@empresa.com")));
+    }
+
+    @Test
+    void serieConflitanteComReservaAvulsaNaoEGravada() {
+        Long salaId = criarSala("Serie", 35);
+        LocalDate segunda = proximaSegunda();
+        reservaService.criarReserva(reserva(salaId, segunda.plusWeeks(1), 10, 11, "avulsa@empresa.com"));
+
+        assertConflito(() -> serieReservaService.criarSerie(serie(salaId, segunda, segunda.plusWeeks(2), 9, 11)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM series_reserva WHERE sala_id = ?", Integer.class, salaId))
+                .isZero();
+        // A recusa não deixa bits no índice: a primeira segunda continua livre
+        assertThat(reservaService.criarReserva(reserva(salaId, segunda, 9, 11, "avulsa@empresa.com")).id()).isNotNull();
+    }
+
+    private static CriarSerieReservaDTO serie(Long salaId, LocalDate de, LocalDate ate, int horaInicio, int horaFim) {
+        return new CriarSerieReservaDTO(salaId, Frequencia.SEMANAL, de, ate, LocalTime.of(horaInicio, 0),
+                LocalTime.of(horaFim, 0), "Teste", "serie@empresa.com", null, 2);
+    }
+
+    private static void assertConflito(Runnable operacao) {
+        assertThatThrownBy(operacao::run)
+                .isInstanceOfSatisfying(RegraNegocioException.class,
+                        e -> assertThat(e.getRegra()).isEqualTo(RegraViolada.CONFLITO_HORARIO));
+    }
+}
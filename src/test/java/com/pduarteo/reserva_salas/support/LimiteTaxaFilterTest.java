@@ -0,0 +1,100 @@
+package com.pduarteo.reserva_salas.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteTaxaFilterTest {
+
+    @Test
+    void trocarEmailOuCabecalhoNaoContornaOLimiteDoEndereco() throws Exception {
+        LimiteTaxaFilter filtro = filtro(false);
+
+        assertThat(escrever(filtro, "a@empresa.com", "cliente-1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(escrever(filtro, "b@empresa.com", "cliente-2").getStatus()).isEqualTo(HttpStatus.OK.value());
+        MockHttpServletResponse recusada = escrever(filtro, "c@empresa.com", "cliente-3");
+        assertThat(recusada.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(recusada.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    void cabecalhoDeProxyConfiavelSeparaOsClientes() throws Exception {
+        LimiteTaxaFilter filtro = filtro(true);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(escrever(filtro, "cliente" + i + "@empresa.com", "cliente-" + i).getStatus())
+                    .isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    void corpoRelidoAvisaOLeitorAssincrono() throws Exception {
+        MockFilterChain cadeia = new MockFilterChain();
+        filtro(false).doFilter(requisicao("leitor@empresa.com", null), new MockHttpServletResponse(), cadeia);
+
+        ServletInputStream entrada = ((HttpServletRequest) cadeia.getRequest()).getInputStream();
+        ByteArrayOutputStream lido = new ByteArrayOutputStream();
+        boolean[] terminou = new boolean[1];
+        entrada.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (entrada.isReady() && !entrada.isFinished()) {
+                    lido.write(entrada.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                terminou[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable erro) {
+                throw new AssertionError(erro);
+            }
+        });
+
+        assertThat(terminou[0]).isTrue();
+        assertThat(lido.toString(StandardCharsets.UTF_8)).contains("leitor@empresa.com");
+    }
+
+    private static LimiteTaxaFilter filtro(boolean clientePorCabecalho) {
+        LimiteTaxaFilter filtro = new LimiteTaxaFilter(10, 1, 2, 0.001, 100, clientePorCabecalho);
+        ReflectionTestUtils.setField(filtro, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+        return filtro;
+    }
+
+    private static MockHttpServletResponse escrever(LimiteTaxaFilter filtro, String email, String cliente) throws Exception {
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        filtro.doFilter(requisicao(email, cliente), resposta, new MockFilterChain());
+        return resposta;
+    }
+
+    private static MockHttpServletRequest requisicao(String email, String cliente) {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("POST", "/api/reservas");
+        requisicao.setRequestURI("/api/reservas");
+        requisicao.setRemoteAddr("10.0.0.7");
+        requisicao.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        requisicao.setContent(("{\"emailResponsavel\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8));
+        if (cliente != null) {
+            requisicao.addHeader("X-Client-Id", cliente);
+        }
+        return requisicao;
+    }
+}
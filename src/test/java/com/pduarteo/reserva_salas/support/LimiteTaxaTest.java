@@ -0,0 +1,71 @@
+package com.pduarteo.reserva_salas.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteTaxaTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void aceitaARajadaERecusaOExcesso() {
+        LimiteTaxa limite = new LimiteTaxa(5, 1, 100);
+        long agora = 1_000 * SEGUNDO;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limite.consumir("cliente", agora)).isZero();
+        }
+        assertThat(limite.consumir("cliente", agora)).isEqualTo(SEGUNDO);
+        assertThat(limite.consumir("outro", agora)).isZero();
+    }
+
+    @Test
+    void repoeFichasNaTaxaConfigurada() {
+        LimiteTaxa limite = new LimiteTaxa(2, 2, 100);
+        long agora = 1_000 * SEGUNDO;
+        limite.consumir("cliente", agora);
+        limite.consumir("cliente", agora);
+
+        assertThat(limite.consumir("cliente", agora + SEGUNDO / 4)).isPositive();
+        assertThat(limite.consumir("cliente", agora + SEGUNDO / 2)).isZero();
+        assertThat(limite.consumir("cliente", agora + SEGUNDO / 2)).isPositive();
+        // Ociosa por mais que o tempo de reposição, a chave volta ao balde cheio, sem acumular além dele
+        assertThat(limite.consumir("cliente", agora + 10 * SEGUNDO)).isZero();
+        assertThat(limite.consumir("cliente", agora + 10 * SEGUNDO)).isZero();
+        assertThat(limite.consumir("cliente", agora + 10 * SEGUNDO)).isPositive();
+    }
+
+    @Test
+    void consumosConcorrentesNaoUltrapassamACapacidade() throws InterruptedException {
+        int capacidade = 100;
+        LimiteTaxa limite = new LimiteTaxa(capacidade, 0.001, 100);
+        long agora = System.nanoTime();
+        int threads = 8;
+        AtomicInteger aceitas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (limite.consumir("cliente", agora) == 0) {
+                        aceitas.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(aceitas).hasValue(capacidade);
+    }
+}